@@ -0,0 +1,128 @@
+package com.evcharger.api.benchmark;
+
+import com.evcharger.api.EVChargerApiApplication;
+import com.evcharger.api.dto.BookingDto;
+import com.evcharger.api.entity.Booking;
+import com.evcharger.api.entity.Station;
+import com.evcharger.api.entity.User;
+import com.evcharger.api.repository.BookingRepository;
+import com.evcharger.api.repository.StationRepository;
+import com.evcharger.api.repository.UserRepository;
+import com.evcharger.api.service.BookingService;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The admin booking list over a large Bookings table: hydrating Booking entities with their
+ * Station and User through JOIN FETCH and copying them into DTOs, as before the projections,
+ * against the BOOKING_DTO_SELECT constructor projection that getAllBookings now runs. Uses the
+ * application context on an in-memory H2 database.
+ *
+ * Latency alone misses half of the comparison; run it with the GC profiler to get the bytes
+ * allocated per list (gc.alloc.rate.norm):
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.args="BookingListBenchmark -prof gc"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class BookingListBenchmark {
+    private static final String ENTITY_QUERY = "SELECT b FROM Booking b JOIN FETCH b.station JOIN FETCH b.user";
+
+    @Param({"100000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private EntityManager entityManager;
+    private TransactionTemplate transactionTemplate;
+
+    @Setup
+    public void setUp() {
+        // As arguments, so they override application.yml
+        context = new SpringApplicationBuilder(EVChargerApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:bookings;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.evcharger.api=WARN");
+        bookingService = context.getBean(BookingService.class);
+        entityManager = context.getBean(EntityManager.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        seed();
+        int listed = dtoProjection().size();
+        if (listed != rows) {
+            throw new IllegalStateException("Expected " + rows + " bookings, listed " + listed);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BookingDto> entityJoinFetch() {
+        return transactionTemplate.execute(status -> {
+            List<Booking> bookings = entityManager.createQuery(ENTITY_QUERY, Booking.class).getResultList();
+            List<BookingDto> result = new ArrayList<>(bookings.size());
+            for (Booking b : bookings) {
+                result.add(new BookingDto(b.getId(), b.getUserId(), b.getStationId(), b.getStartTime(), b.getEndTime(),
+                        b.getStatus(), b.getAmount(), b.getDate(), b.getTimeSlot(), b.getDuration(), b.getPaymentMethod(),
+                        b.getVehicleType(), b.getVehicleBrand(), b.getVehicleModel(), b.getVehicleNumber(),
+                        b.getPaymentId(), b.getCreatedAt(), b.getCancellationMessage(),
+                        b.getStation().getName(), b.getUser().getName()));
+            }
+            return result;
+        });
+    }
+
+    @Benchmark
+    public List<BookingDto> dtoProjection() {
+        return bookingService.getAllBookings(false);
+    }
+
+    // Spreads the rows over the seeded stations and users, in committed chunks
+    private void seed() {
+        BookingRepository bookingRepository = context.getBean(BookingRepository.class);
+        List<Station> stations = context.getBean(StationRepository.class).findAll();
+        List<User> users = context.getBean(UserRepository.class).findAll();
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        int chunk = 5000;
+        for (int from = 0; from < rows; from += chunk) {
+            int first = from;
+            int last = Math.min(rows, from + chunk);
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Booking> bookings = new ArrayList<>(last - first);
+                for (int i = first; i < last; i++) {
+                    Booking booking = new Booking(users.get(i % users.size()).getId(),
+                            stations.get(i % stations.size()).getId(),
+                            start.plusMinutes(i), start.plusMinutes(i + 60), BigDecimal.valueOf(250));
+                    booking.setVehicleType("Car");
+                    booking.setVehicleNumber("KA01AB" + (i % 10000));
+                    bookings.add(booking);
+                }
+                bookingRepository.saveAll(bookings);
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
+    }
+}
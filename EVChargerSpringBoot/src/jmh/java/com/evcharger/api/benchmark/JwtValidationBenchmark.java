@@ -0,0 +1,65 @@
+package com.evcharger.api.benchmark;
+
+import com.evcharger.api.entity.User;
+import com.evcharger.api.security.JwtUtils;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token validation as done by the auth filter on every request: the signature check alone
+ * (cache size 0, as before the verified-token cache) against the cache. Several threads
+ * validate the same set of live tokens, so the cache hit path runs under contention.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class JwtValidationBenchmark {
+    @Param({"0", "10000"})
+    private int verifiedCacheSize;
+
+    // Distinct live tokens, as if this many users were active
+    @Param({"1000"})
+    private int tokenCount;
+
+    private JwtUtils jwtUtils;
+    private String[] tokens;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", "benchmark-secret-key-that-is-at-least-32-characters-long");
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 3_600_000);
+        ReflectionTestUtils.setField(jwtUtils, "jwtIssuer", "EVChargerAPI");
+        ReflectionTestUtils.setField(jwtUtils, "jwtAudience", "EVChargerClient");
+        ReflectionTestUtils.setField(jwtUtils, "verifiedCacheSize", verifiedCacheSize);
+        jwtUtils.init();
+
+        tokens = new String[tokenCount];
+        for (int i = 0; i < tokenCount; i++) {
+            User user = new User();
+            user.setId((long) i + 1);
+            user.setEmail("user" + i + "@example.com");
+            user.setRole("User");
+            user.setTokenVersion(0);
+            tokens[i] = jwtUtils.generateTokenForUser(user);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+    }
+
+    @Benchmark
+    public Claims validateJwtToken(Cursor cursor) {
+        String token = tokens[cursor.next++ % tokens.length];
+        return jwtUtils.parseClaims(token);
+    }
+}
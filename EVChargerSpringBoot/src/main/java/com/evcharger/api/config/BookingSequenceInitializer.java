@@ -0,0 +1,95 @@
+package com.evcharger.api.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Moves the booking id sequence past the ids already in the Bookings and ArchivedBookings
+ * tables. Booking ids used to come from an AUTO_INCREMENT column; they now come from the pooled
+ * booking_seq generator, which Hibernate emulates with a one-row table on MySQL and which
+ * starts at 1 when created.
+ * The next value is raised to at least max(id) + one allocation block + 1 so no pooled range
+ * can reach an existing id; it is never lowered.
+ * Runs before the EntityManagerFactory is built, so no request is served and no id block is
+ * handed out before the sequence is aligned. A failure stops startup.
+ */
+@Component
+public class BookingSequenceInitializer implements InitializingBean {
+    private static final Logger logger = LoggerFactory.getLogger(BookingSequenceInitializer.class);
+
+    // Must match the allocationSize of the booking_seq generator on Booking
+    private static final int ALLOCATION_SIZE = 50;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Override
+    public void afterPropertiesSet() {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!"MySQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName())) {
+                logger.info("Booking sequence alignment only needed on MySQL, skipping");
+                return;
+            }
+            if (!tableExists(connection, "bookings")) {
+                // Fresh schema: Hibernate creates the sequence table and no id is taken yet
+                return;
+            }
+            // Archived bookings keep their ids, so they count too
+            long maxId = Math.max(maxId(connection, "bookings"),
+                    tableExists(connection, "archived_bookings") ? maxId(connection, "archived_bookings") : 0);
+            long floor = maxId + ALLOCATION_SIZE + 1;
+            try (Statement statement = connection.createStatement()) {
+                // Same shape as the table Hibernate creates; Hibernate leaves an existing one alone
+                statement.execute("CREATE TABLE IF NOT EXISTS booking_seq (next_val BIGINT) ENGINE=InnoDB");
+            }
+            int updated;
+            try (PreparedStatement update = connection.prepareStatement(
+                    "UPDATE booking_seq SET next_val = GREATEST(next_val, ?)")) {
+                update.setLong(1, floor);
+                updated = update.executeUpdate();
+            }
+            if (updated == 0) {
+                try (PreparedStatement insert = connection.prepareStatement(
+                        "INSERT INTO booking_seq (next_val) VALUES (?)")) {
+                    insert.setLong(1, floor);
+                    insert.executeUpdate();
+                }
+            }
+            logger.info("Booking id sequence aligned past existing id {}", maxId);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not align booking id sequence: " + e.getMessage(), e);
+        }
+    }
+
+    private static boolean tableExists(Connection connection, String table) throws SQLException {
+        try (ResultSet tables = connection.getMetaData().getTables(connection.getCatalog(), null, table, new String[]{"TABLE"})) {
+            return tables.next();
+        }
+    }
+
+    private static long maxId(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            return result.next() ? result.getLong(1) : 0;
+        }
+    }
+
+    /** Makes the entityManagerFactory bean wait for the alignment above. */
+    @Component
+    static class EntityManagerFactoryDependsOnSequence extends EntityManagerFactoryDependsOnPostProcessor {
+        EntityManagerFactoryDependsOnSequence() {
+            super(BookingSequenceInitializer.class);
+        }
+    }
+}
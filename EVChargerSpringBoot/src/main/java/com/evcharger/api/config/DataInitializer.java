@@ -11,7 +11,9 @@ import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Component
 public class DataInitializer implements CommandLineRunner {
@@ -54,6 +56,9 @@ public class DataInitializer implements CommandLineRunner {
                 logger.info("Vehicle brands and models seeded");
             }
 
+            // Models seeded before range/connector specs existed get them from the seed list
+            backfillVehicleModelSpecs();
+
             // Seed stations
             if (stationRepository.count() == 0) {
                 seedStations();
@@ -83,32 +88,55 @@ public class DataInitializer implements CommandLineRunner {
 
         vehicleBrandRepository.saveAll(carBrands);
 
-        // Add models
-        List<VehicleModel> models = Arrays.asList(
-            new VehicleModel("Nexon EV", 1L),
-            new VehicleModel("Tigor EV", 1L),
-            new VehicleModel("Tiago EV", 1L),
-            new VehicleModel("XUV400", 2L),
-            new VehicleModel("eVerito", 2L),
-            new VehicleModel("ZS EV", 3L),
-            new VehicleModel("Comet EV", 3L),
-            new VehicleModel("Kona Electric", 4L),
-            new VehicleModel("Ioniq 5", 4L),
-            new VehicleModel("EV6", 5L),
-            new VehicleModel("Atto 3", 6L),
-            new VehicleModel("450X", 7L),
-            new VehicleModel("450 Plus", 7L),
-            new VehicleModel("S1 Pro", 8L),
-            new VehicleModel("S1 Air", 8L),
-            new VehicleModel("iQube", 9L),
-            new VehicleModel("Chetak", 10L),
-            new VehicleModel("Photon", 11L),
-            new VehicleModel("Optima", 11L)
-        );
+        // Add models with their claimed range (km) and supported connectors
+        List<VehicleModel> models = vehicleModelSpecs();
 
         vehicleModelRepository.saveAll(models);
     }
 
+    private List<VehicleModel> vehicleModelSpecs() {
+        return Arrays.asList(
+            new VehicleModel("Nexon EV", 1L, 465, "[\"CCS\",\"Type 2\"]"),
+            new VehicleModel("Tigor EV", 1L, 315, "[\"CCS\",\"Type 2\"]"),
+            new VehicleModel("Tiago EV", 1L, 315, "[\"CCS\",\"Type 2\"]"),
+            new VehicleModel("XUV400", 2L, 456, "[\"CCS\",\"Type 2\"]"),
+            new VehicleModel("eVerito", 2L, 110, "[\"Bharat DC001\"]"),
+            new VehicleModel("ZS EV", 3L, 461, "[\"CCS\",\"Type 2\"]"),
+            new VehicleModel("Comet EV", 3L, 230, "[\"Type 2\"]"),
+            new VehicleModel("Kona Electric", 4L, 452, "[\"CCS\",\"Type 2\"]"),
+            new VehicleModel("Ioniq 5", 4L, 631, "[\"CCS\",\"Type 2\"]"),
+            new VehicleModel("EV6", 5L, 708, "[\"CCS\",\"Type 2\"]"),
+            new VehicleModel("Atto 3", 6L, 521, "[\"CCS\",\"Type 2\"]"),
+            new VehicleModel("450X", 7L, 150, "[\"Type 2\"]"),
+            new VehicleModel("450 Plus", 7L, 100, "[\"Type 2\"]"),
+            new VehicleModel("S1 Pro", 8L, 195, "[\"Type 2\"]"),
+            new VehicleModel("S1 Air", 8L, 151, "[\"Type 2\"]"),
+            new VehicleModel("iQube", 9L, 100, "[\"Type 2\"]"),
+            new VehicleModel("Chetak", 10L, 113, "[\"Type 2\"]"),
+            new VehicleModel("Photon", 11L, 108, "[\"Type 2\"]"),
+            new VehicleModel("Optima", 11L, 140, "[\"Type 2\"]")
+        );
+    }
+
+    private void backfillVehicleModelSpecs() {
+        List<VehicleModel> missing = vehicleModelRepository.findByRangeKmIsNull();
+        if (missing.isEmpty()) {
+            return;
+        }
+        Map<String, VehicleModel> specs = new HashMap<>();
+        for (VehicleModel spec : vehicleModelSpecs()) {
+            specs.put(spec.getName(), spec);
+        }
+        for (VehicleModel model : missing) {
+            VehicleModel spec = specs.get(model.getName());
+            if (spec != null) {
+                model.setRangeKm(spec.getRangeKm());
+                model.setConnectorTypes(spec.getConnectorTypes());
+            }
+        }
+        vehicleModelRepository.saveAll(missing);
+    }
+
     private void seedStations() {
         List<Station> stations = Arrays.asList(
             createStation("Central Mall Charging Hub", "123 Main Street, Satara", 17.6868, 74.0180, 
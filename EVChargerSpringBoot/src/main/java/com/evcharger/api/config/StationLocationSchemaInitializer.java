@@ -0,0 +1,72 @@
+package com.evcharger.api.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+/**
+ * Adds the MySQL spatial column used by the database-side station search. The column is a
+ * stored generated POINT computed from latitude/longitude, so it can never drift from the
+ * values Hibernate writes, and it carries a SPATIAL index. Hibernate's ddl-auto cannot create
+ * either, hence the explicit DDL. On other databases (H2 in local runs) nothing is changed and
+ * the search falls back to a bounding box over the indexed latitude/longitude columns.
+ */
+@Component
+public class StationLocationSchemaInitializer implements CommandLineRunner {
+    private static final Logger logger = LoggerFactory.getLogger(StationLocationSchemaInitializer.class);
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private volatile boolean spatialColumnAvailable = false;
+
+    public boolean isSpatialColumnAvailable() {
+        return spatialColumnAvailable;
+    }
+
+    @Override
+    public void run(String... args) {
+        try {
+            if (!isMySql()) {
+                logger.info("Spatial station column not supported on this database, using bounding box search");
+                return;
+            }
+
+            Integer columns = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = DATABASE() " +
+                    "AND LOWER(TABLE_NAME) = 'stations' AND COLUMN_NAME = 'location'", Integer.class);
+            if (columns == null || columns == 0) {
+                jdbcTemplate.execute("ALTER TABLE stations ADD COLUMN location POINT SRID 4326 " +
+                        "GENERATED ALWAYS AS (ST_SRID(POINT(longitude, latitude), 4326)) STORED NOT NULL");
+                logger.info("Added spatial location column to stations");
+            }
+
+            Integer indexes = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM information_schema.STATISTICS WHERE TABLE_SCHEMA = DATABASE() " +
+                    "AND LOWER(TABLE_NAME) = 'stations' AND INDEX_NAME = 'idx_stations_location'", Integer.class);
+            if (indexes == null || indexes == 0) {
+                jdbcTemplate.execute("ALTER TABLE stations ADD SPATIAL INDEX idx_stations_location (location)");
+                logger.info("Added spatial index on stations.location");
+            }
+
+            spatialColumnAvailable = true;
+        } catch (Exception e) {
+            logger.error("Could not set up spatial station column, using bounding box search: {}", e.getMessage());
+        }
+    }
+
+    private boolean isMySql() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            return "MySQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+        }
+    }
+}
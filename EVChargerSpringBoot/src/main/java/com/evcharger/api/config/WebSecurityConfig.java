@@ -2,7 +2,10 @@ package com.evcharger.api.config;
 
 import com.evcharger.api.security.AuthEntryPointJwt;
 import com.evcharger.api.security.AuthTokenFilter;
+import com.evcharger.api.security.BoundedPasswordEncoder;
+import com.evcharger.api.security.IdempotencyFilter;
 import com.evcharger.api.security.UserDetailsServiceImpl;
+import com.evcharger.api.service.IdempotencyService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -15,7 +18,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -23,6 +25,7 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.List;
+import java.util.Set;
 
 @Configuration
 @EnableWebSecurity
@@ -34,6 +37,16 @@ public class WebSecurityConfig {
     @Autowired
     private AuthEntryPointJwt unauthorizedHandler;
 
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    // POST endpoints that honour the Idempotency-Key header
+    @Value("${idempotency.paths:/api/bookings,/api/bookings/holds,/api/payment/create-order,/api/payment/verify}")
+    private String idempotentPaths;
+
+    @Value("${idempotency.max-body-bytes:65536}")
+    private int idempotentMaxBodyBytes;
+
     @Value("http://localhost:5173,http://localhost:5174,http://localhost:3000")
     private String allowedOrigins;
 
@@ -43,6 +56,20 @@ public class WebSecurityConfig {
     @Value("*")
     private String allowedHeaders;
 
+    // Hashes below this cost are re-encoded at the next successful login
+    @Value("${spring.security.password.bcrypt-strength:10}")
+    private int bcryptStrength;
+
+    // 0 uses one hashing thread per core
+    @Value("${spring.security.password.hashing-threads:0}")
+    private int hashingThreads;
+
+    @Value("${spring.security.password.queue-capacity:64}")
+    private int hashingQueueCapacity;
+
+    @Value("${spring.security.password.wait-ms:5000}")
+    private long hashingWaitMillis;
+
     @Value("true")
     private boolean allowCredentials;
 
@@ -56,6 +83,7 @@ public class WebSecurityConfig {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setUserDetailsPasswordService(userDetailsService);
         return authProvider;
     }
 
@@ -65,8 +93,8 @@ public class WebSecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder() {
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(bcryptStrength), hashingThreads, hashingQueueCapacity, hashingWaitMillis);
     }
 
     @Bean
@@ -103,6 +131,7 @@ public class WebSecurityConfig {
 
         http.authenticationProvider(authenticationProvider());
         http.addFilterBefore(authenticationJwtTokenFilter(), UsernamePasswordAuthenticationFilter.class);
+        http.addFilterAfter(new IdempotencyFilter(idempotencyService, Set.of(idempotentPaths.split(",")), idempotentMaxBodyBytes), AuthTokenFilter.class);
 
         return http.build();
     }
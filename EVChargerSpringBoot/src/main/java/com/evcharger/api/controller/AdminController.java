@@ -1,6 +1,21 @@
 package com.evcharger.api.controller;
 
+import com.evcharger.api.dto.BookingDto;
+import com.evcharger.api.dto.UserDto;
+import com.evcharger.api.security.BoundedPasswordEncoder;
+import com.evcharger.api.security.JwtUtils;
+import com.evcharger.api.security.RevokedTokens;
+import com.evcharger.api.security.UserDetailsServiceImpl;
+import com.evcharger.api.service.BookingArchiver;
+import com.evcharger.api.service.BookingBatchWriter;
+import com.evcharger.api.service.BookingCalendar;
+import com.evcharger.api.service.BookingEventCounters;
+import com.evcharger.api.service.BookingHoldService;
+import com.evcharger.api.service.BookingOutbox;
 import com.evcharger.api.service.BookingService;
+import com.evcharger.api.service.IdempotencyService;
+import com.evcharger.api.service.KeysetPagination;
+import com.evcharger.api.service.SlotInventory;
 import com.evcharger.api.service.StationService;
 import com.evcharger.api.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -9,6 +24,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @RestController
@@ -29,6 +45,45 @@ public class AdminController {
     @Autowired
     private StationService stationService;
 
+    @Autowired
+    private SlotInventory slotInventory;
+
+    @Autowired
+    private BookingCalendar bookingCalendar;
+
+    @Autowired
+    private BookingHoldService bookingHoldService;
+
+    @Autowired
+    private BookingBatchWriter bookingBatchWriter;
+
+    @Autowired
+    private BookingOutbox bookingOutbox;
+
+    @Autowired
+    private BookingEventCounters bookingEventCounters;
+
+    @Autowired
+    private BookingArchiver bookingArchiver;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private KeysetPagination keysetPagination;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private RevokedTokens revokedTokens;
+
+    @Autowired
+    private BoundedPasswordEncoder passwordEncoder;
+
     @GetMapping("/dashboard-stats")
     @Operation(summary = "Get dashboard statistics", description = "Get admin dashboard statistics")
     public ResponseEntity<?> getDashboardStats() {
@@ -44,16 +99,57 @@ public class AdminController {
         return ResponseEntity.ok(Map.of("stats", stats));
     }
 
+    @GetMapping("/metrics")
+    @Operation(summary = "Get cache metrics", description = "Get version and rebuild metrics of in-memory caches")
+    public ResponseEntity<?> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("stationSnapshot", stationService.getViewSnapshotMetrics());
+        metrics.put("slotInventory", slotInventory.getMetrics());
+        metrics.put("bookingCalendar", bookingCalendar.getMetrics());
+        metrics.put("bookingHolds", bookingHoldService.getMetrics());
+        metrics.put("bookingBatch", bookingBatchWriter.getMetrics());
+        metrics.put("bookingEvents", bookingOutbox.getMetrics());
+        metrics.put("bookingEventCounts", bookingEventCounters.getMetrics());
+        metrics.put("bookingArchive", bookingArchiver.getMetrics());
+        metrics.put("idempotency", idempotencyService.getMetrics());
+        metrics.put("userPrincipalCache", userDetailsService.getMetrics());
+        metrics.put("verifiedTokens", jwtUtils.getVerifiedCacheMetrics());
+        metrics.put("revokedTokens", revokedTokens.getMetrics());
+        metrics.put("passwordHashing", passwordEncoder.getMetrics());
+        return ResponseEntity.ok(metrics);
+    }
+
     @GetMapping("/users")
     @Operation(summary = "Get all users (Admin)", description = "Get all users for admin management")
-    public ResponseEntity<?> getAllUsers() {
-        return ResponseEntity.ok(Map.of("users", userService.getAllUsers()));
+    public ResponseEntity<?> getAllUsers(@RequestParam(required = false) Integer limit,
+                                         @RequestParam(required = false) String cursor) {
+        if (limit == null && cursor == null) {
+            return ResponseEntity.ok(Map.of("users", userService.getAllUsers()));
+        }
+        int pageSize = keysetPagination.pageSize(limit);
+        Long afterId = keysetPagination.decode("users", cursor);
+        return ResponseEntity.ok(keysetPagination.response("users", "users",
+                userService.getUsersAfter(afterId, pageSize + 1), pageSize, UserDto::getId));
     }
 
     @GetMapping("/bookings")
     @Operation(summary = "Get all bookings (Admin)", description = "Get all bookings for admin management")
-    public ResponseEntity<?> getAllBookings() {
-        return ResponseEntity.ok(Map.of("bookings", bookingService.getAllBookings()));
+    public ResponseEntity<?> getAllBookings(@RequestParam(defaultValue = "false") boolean includeArchived,
+                                            @RequestParam(required = false) Integer limit,
+                                            @RequestParam(required = false) String cursor) {
+        if (limit == null && cursor == null) {
+            return ResponseEntity.ok(Map.of("bookings", bookingService.getAllBookings(includeArchived)));
+        }
+        int pageSize = keysetPagination.pageSize(limit);
+        Long beforeId = keysetPagination.decode("bookings", cursor);
+        return ResponseEntity.ok(keysetPagination.response("bookings", "bookings",
+                bookingService.getAllBookingsBefore(includeArchived, beforeId, pageSize + 1), pageSize, BookingDto::getId));
+    }
+
+    @PostMapping("/bookings/archive")
+    @Operation(summary = "Archive finished bookings", description = "Move old completed and cancelled bookings to the archive table now")
+    public ResponseEntity<?> archiveBookings() {
+        return ResponseEntity.ok(Map.of("archived", bookingArchiver.archive()));
     }
 
     @GetMapping("/stations")
@@ -2,6 +2,7 @@ package com.evcharger.api.controller;
 
 import com.evcharger.api.dto.*;
 import com.evcharger.api.entity.User;
+import com.evcharger.api.exception.PasswordHashingBusyException;
 import com.evcharger.api.repository.UserRepository;
 import com.evcharger.api.service.AuthService;
 import com.evcharger.api.service.OTPService;
@@ -57,12 +58,28 @@ public class AuthController {
         try {
             Map<String, Object> response = authService.authenticateUser(loginRequest);
             return ResponseEntity.ok(response);
+        } catch (PasswordHashingBusyException e) {
+            // Answered with 503 by the global handler
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(Map.of("message", "Invalid credentials"));
         }
     }
     
+    @PostMapping("/logout")
+    @Operation(summary = "Logout", description = "Revoke the bearer token so it can no longer be used")
+    public ResponseEntity<?> logout(@RequestHeader(value = "Authorization", required = false) String authorization) {
+        try {
+            String token = authorization != null && authorization.startsWith("Bearer ") ? authorization.substring(7) : null;
+            authService.logout(token);
+            return ResponseEntity.ok(Map.of("message", "Logged out successfully"));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("message", e.getMessage()));
+        }
+    }
+    
     @PostMapping("/send-otp")
     @Operation(summary = "Send OTP", description = "Send OTP to user email for login")
     public ResponseEntity<?> sendOTP(@RequestBody Map<String, String> request) {
@@ -136,7 +153,7 @@ public class AuthController {
             userRepository.save(user);
             
             // Generate JWT token without authentication for Google users
-            String jwt = jwtUtils.generateTokenFromUsername(email);
+            String jwt = jwtUtils.generateTokenForUser(user);
             
             // Convert to DTO
             UserDto userDto = new UserDto();
@@ -205,6 +222,9 @@ public class AuthController {
         try {
             Map<String, Object> response = authService.registerUser(signUpRequest);
             return ResponseEntity.ok(response);
+        } catch (PasswordHashingBusyException e) {
+            // Answered with 503 by the global handler
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest()
                     .body(Map.of("message", e.getMessage()));
@@ -2,9 +2,13 @@ package com.evcharger.api.controller;
 
 import com.evcharger.api.dto.AdminCancelBookingDto;
 import com.evcharger.api.dto.BookingDto;
+import com.evcharger.api.dto.BookingHoldDto;
 import com.evcharger.api.dto.CreateBookingDto;
+import com.evcharger.api.dto.CreateBookingHoldDto;
 import com.evcharger.api.security.UserDetailsImpl;
+import com.evcharger.api.service.BookingHoldService;
 import com.evcharger.api.service.BookingService;
+import com.evcharger.api.service.KeysetPagination;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -28,6 +32,12 @@ public class BookingsController {
     @Autowired
     private BookingService bookingService;
 
+    @Autowired
+    private BookingHoldService bookingHoldService;
+
+    @Autowired
+    private KeysetPagination keysetPagination;
+
     @PostMapping
     @Operation(summary = "Create booking", description = "Create a new charging station booking")
     public ResponseEntity<?> createBooking(@Valid @RequestBody CreateBookingDto createBookingDto,
@@ -48,18 +58,55 @@ public class BookingsController {
         }
     }
 
+    @PostMapping("/holds")
+    @Operation(summary = "Hold a slot", description = "Reserve a slot for a few minutes while the user pays; converted to a booking on payment verify")
+    public ResponseEntity<?> createHold(@Valid @RequestBody CreateBookingHoldDto holdDto, Authentication authentication) {
+        try {
+            UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+            BookingHoldDto hold = bookingHoldService.createHold(userDetails.getId(), holdDto);
+            return ResponseEntity.ok(Map.of("hold", hold));
+        } catch (RuntimeException e) {
+            logger.error("Error creating hold: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(Map.of("message", "Error creating hold", "error", e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/holds/{holdId}")
+    @Operation(summary = "Release a hold", description = "Give a held slot back before it expires")
+    public ResponseEntity<?> releaseHold(@PathVariable String holdId, Authentication authentication) {
+        try {
+            UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+            bookingHoldService.releaseHold(userDetails.getId(), holdId);
+            return ResponseEntity.ok(Map.of("message", "Hold released successfully"));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(404)
+                    .body(Map.of("message", e.getMessage()));
+        }
+    }
+
     @GetMapping("/user")
     @Operation(summary = "Get user bookings", description = "Get all bookings for the current user")
-    public ResponseEntity<?> getUserBookings(Authentication authentication) {
+    public ResponseEntity<?> getUserBookings(Authentication authentication,
+                                             @RequestParam(required = false) Integer limit,
+                                             @RequestParam(required = false) String cursor) {
         try {
             UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
             Long userId = userDetails.getId();
             
             logger.info("Getting bookings for user ID: {}", userId);
             
+            if (limit != null || cursor != null) {
+                int pageSize = keysetPagination.pageSize(limit);
+                Long beforeId = keysetPagination.decode("user-bookings", cursor);
+                return ResponseEntity.ok(keysetPagination.response("bookings", "user-bookings",
+                        bookingService.getUserBookingsBefore(userId, beforeId, pageSize + 1), pageSize, BookingDto::getId));
+            }
             List<BookingDto> bookings = bookingService.getUserBookings(userId);
             
             return ResponseEntity.ok(Map.of("bookings", bookings));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
         } catch (Exception e) {
             logger.error("Error getting user bookings: {}", e.getMessage());
             return ResponseEntity.status(500)
@@ -69,10 +116,20 @@ public class BookingsController {
 
     @GetMapping("/admin")
     @Operation(summary = "Get all bookings (Admin)", description = "Get all bookings for admin users")
-    public ResponseEntity<?> getAllBookings() {
+    public ResponseEntity<?> getAllBookings(@RequestParam(defaultValue = "false") boolean includeArchived,
+                                            @RequestParam(required = false) Integer limit,
+                                            @RequestParam(required = false) String cursor) {
         try {
-            List<BookingDto> bookings = bookingService.getAllBookings();
+            if (limit != null || cursor != null) {
+                int pageSize = keysetPagination.pageSize(limit);
+                Long beforeId = keysetPagination.decode("bookings", cursor);
+                return ResponseEntity.ok(keysetPagination.response("bookings", "bookings",
+                        bookingService.getAllBookingsBefore(includeArchived, beforeId, pageSize + 1), pageSize, BookingDto::getId));
+            }
+            List<BookingDto> bookings = bookingService.getAllBookings(includeArchived);
             return ResponseEntity.ok(bookings);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
         } catch (Exception e) {
             logger.error("Error getting admin bookings: {}", e.getMessage());
             return ResponseEntity.status(500)
@@ -1,17 +1,30 @@
 package com.evcharger.api.controller;
 
+import com.evcharger.api.dto.BookingDto;
+import com.evcharger.api.dto.BookingHoldDto;
+import com.evcharger.api.dto.CreateBookingDto;
+import com.evcharger.api.security.UserDetailsImpl;
+import com.evcharger.api.service.BookingHoldService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import com.razorpay.Order;
+import com.razorpay.Payment;
 import com.razorpay.RazorpayClient;
 import com.razorpay.RazorpayException;
 import com.razorpay.Utils;
 
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @RestController
@@ -19,6 +32,7 @@ import java.util.Map;
 @Tag(name = "Payment", description = "Payment processing APIs")
 @CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174", "http://localhost:3000"})
 public class PaymentController {
+    private static final Logger logger = LoggerFactory.getLogger(PaymentController.class);
 
     @Value("${razorpay.key.id:rzp_test_your_key_id}")
     private String razorpayKeyId;
@@ -26,9 +40,12 @@ public class PaymentController {
     @Value("${razorpay.key.secret:your_key_secret}")
     private String razorpayKeySecret;
 
+    @Autowired
+    private BookingHoldService bookingHoldService;
+
     @PostMapping("/create-order")
     @Operation(summary = "Create Razorpay order", description = "Create a new payment order")
-    public ResponseEntity<?> createOrder(@RequestBody Map<String, Object> request) {
+    public ResponseEntity<?> createOrder(@RequestBody Map<String, Object> request, Authentication authentication) {
         try {
             // Get amount in paise (already converted from frontend)
             Integer amountInPaise = (Integer) request.get("amount");
@@ -38,6 +55,17 @@ public class PaymentController {
                     .body(Map.of("error", "Invalid amount"));
             }
 
+            // Don't take payment for a slot hold that has already expired
+            String holdId = (String) request.get("holdId");
+            if (holdId != null) {
+                try {
+                    bookingHoldService.checkHold(currentUserId(authentication), holdId);
+                } catch (RuntimeException e) {
+                    return ResponseEntity.badRequest()
+                        .body(Map.of("error", e.getMessage()));
+                }
+            }
+
             RazorpayClient razorpayClient = new RazorpayClient(razorpayKeyId, razorpayKeySecret);
 
             // Create order request
@@ -48,12 +76,27 @@ public class PaymentController {
 
             Order order = razorpayClient.orders.create(orderRequest);
 
-            return ResponseEntity.ok(Map.of(
-                "id", order.get("id"),
-                "amount", order.get("amount"), // This will be in paise
-                "currency", order.get("currency"),
-                "status", order.get("status")
-            ));
+            // Keep the hold for the length of the payment, now that there is an order to pay
+            BookingHoldDto hold = null;
+            if (holdId != null) {
+                try {
+                    hold = bookingHoldService.pinHold(currentUserId(authentication), holdId,
+                            order.get("id"), order.get("amount"));
+                } catch (RuntimeException e) {
+                    return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(Map.of("error", e.getMessage()));
+                }
+            }
+
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("id", order.get("id"));
+            response.put("amount", order.get("amount")); // This will be in paise
+            response.put("currency", order.get("currency"));
+            response.put("status", order.get("status"));
+            if (hold != null) {
+                response.put("holdExpiresAt", hold.getExpiresAt());
+            }
+            return ResponseEntity.ok(response);
 
         } catch (RazorpayException e) {
             return ResponseEntity.status(500)
@@ -66,7 +109,7 @@ public class PaymentController {
 
     @PostMapping("/verify")
     @Operation(summary = "Verify payment", description = "Verify Razorpay payment signature")
-    public ResponseEntity<?> verifyPayment(@RequestBody Map<String, Object> request) {
+    public ResponseEntity<?> verifyPayment(@RequestBody Map<String, Object> request, Authentication authentication) {
         try {
             String paymentId = (String) request.get("razorpay_payment_id");
             String orderId = (String) request.get("razorpay_order_id");
@@ -97,12 +140,33 @@ public class PaymentController {
                     .body(Map.of("success", false, "error", "Amount mismatch. Expected: " + expectedAmount + ", Actual: " + actualAmount));
             }
 
-            return ResponseEntity.ok(Map.of(
-                "success", true,
-                "paymentId", paymentId,
-                "orderId", orderId,
-                "amount", actualAmount
-            ));
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("success", true);
+            response.put("paymentId", paymentId);
+            response.put("orderId", orderId);
+            response.put("amount", actualAmount);
+
+            // A paid slot hold becomes the booking
+            String holdId = (String) request.get("holdId");
+            if (holdId != null) {
+                // A payment books one hold; a replay must neither book again nor refund the booked payment
+                if (bookingHoldService.isPaymentBooked(paymentId)) {
+                    return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(Map.of("success", false, "error", "This payment has already been used for a booking"));
+                }
+                try {
+                    BookingDto booking = bookingHoldService.convertHold(currentUserId(authentication), holdId,
+                            orderId, actualAmount, bookingDetails(request, paymentId, actualAmount));
+                    response.put("booking", Map.of("id", booking.getId(), "status", booking.getStatus()));
+                } catch (RuntimeException e) {
+                    // Paid but not booked: never report success, and give the money back
+                    response.put("success", false);
+                    response.put("error", "Payment received but the booking could not be made: " + e.getMessage());
+                    response.put("refundStatus", refundUnbookedPayment(razorpayClient, paymentId, orderId, e.getMessage()));
+                    return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+                }
+            }
+            return ResponseEntity.ok(response);
 
         } catch (RazorpayException e) {
             return ResponseEntity.status(500)
@@ -113,6 +177,58 @@ public class PaymentController {
         }
     }
 
+    /**
+     * Refunds a verified payment whose booking failed. The payment is looked up first, so a
+     * retried verify does not refund twice. Returns refunded, refund_initiated, not_captured
+     * (the authorization lapses without capture) or reconciliation_required when Razorpay
+     * could not be reached; the last is logged for manual follow-up.
+     */
+    private String refundUnbookedPayment(RazorpayClient razorpayClient, String paymentId, String orderId, String reason) {
+        try {
+            Payment payment = razorpayClient.payments.fetch(paymentId);
+            String status = payment.get("status");
+            if ("refunded".equals(status) || "full".equals(String.valueOf(payment.get("refund_status")))) {
+                return "refunded";
+            }
+            if (!"captured".equals(status)) {
+                return "not_captured";
+            }
+            org.json.JSONObject refundRequest = new org.json.JSONObject();
+            refundRequest.put("notes", new org.json.JSONObject().put("reason", "Booking failed: " + reason));
+            razorpayClient.payments.refund(paymentId, refundRequest);
+            logger.warn("Refunded payment {} of order {}: booking failed ({})", paymentId, orderId, reason);
+            return "refund_initiated";
+        } catch (RazorpayException | RuntimeException e) {
+            logger.error("RECONCILE: payment {} of order {} was taken but not booked ({}) and could not be refunded: {}",
+                    paymentId, orderId, reason, e.getMessage());
+            return "reconciliation_required";
+        }
+    }
+
+    private CreateBookingDto bookingDetails(Map<String, Object> request, String paymentId, Integer amountInPaise) {
+        CreateBookingDto details = new CreateBookingDto();
+        details.setAmount(BigDecimal.valueOf(amountInPaise).movePointLeft(2));
+        details.setPaymentId(paymentId);
+        details.setPaymentMethod("Razorpay");
+        details.setDate((String) request.get("date"));
+        details.setTimeSlot((String) request.get("timeSlot"));
+        if (request.get("duration") instanceof Integer duration) {
+            details.setDuration(duration);
+        }
+        details.setVehicleType((String) request.get("vehicleType"));
+        details.setVehicleBrand((String) request.get("vehicleBrand"));
+        details.setVehicleModel((String) request.get("vehicleModel"));
+        details.setVehicleNumber((String) request.get("vehicleNumber"));
+        return details;
+    }
+
+    private Long currentUserId(Authentication authentication) {
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetailsImpl userDetails) {
+            return userDetails.getId();
+        }
+        return null;
+    }
+
     private String generateSignature(String orderId, String paymentId, String secret) {
         try {
             String payload = orderId + "|" + paymentId;
@@ -4,7 +4,9 @@ import com.evcharger.api.entity.Review;
 import com.evcharger.api.repository.ReviewRepository;
 import com.evcharger.api.repository.UserRepository;
 import com.evcharger.api.repository.StationRepository;
+import com.evcharger.api.service.KeysetPagination;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -25,6 +27,9 @@ public class ReviewController {
     @Autowired
     private StationRepository stationRepository;
 
+    @Autowired
+    private KeysetPagination keysetPagination;
+
     @PostMapping
     public ResponseEntity<?> createReview(@RequestBody Map<String, Object> reviewData) {
         try {
@@ -42,10 +47,21 @@ public class ReviewController {
     }
 
     @GetMapping
-    public ResponseEntity<?> getAllReviews() {
+    public ResponseEntity<?> getAllReviews(@RequestParam(required = false) Integer limit,
+                                           @RequestParam(required = false) String cursor) {
         try {
+            if (limit != null || cursor != null) {
+                // Newest first, keyset on id
+                int pageSize = keysetPagination.pageSize(limit);
+                Long beforeId = keysetPagination.decode("reviews", cursor);
+                List<Review> reviews = reviewRepository.findByIdLessThanOrderByIdDesc(
+                        beforeId != null ? beforeId : Long.MAX_VALUE, PageRequest.of(0, pageSize + 1));
+                return ResponseEntity.ok(keysetPagination.response("reviews", "reviews", reviews, pageSize, Review::getId));
+            }
             List<Review> reviews = reviewRepository.findAll();
             return ResponseEntity.ok(Map.of("reviews", reviews));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of("error", e.getMessage()));
         }
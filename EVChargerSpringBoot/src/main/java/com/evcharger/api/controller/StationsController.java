@@ -1,14 +1,26 @@
 package com.evcharger.api.controller;
 
+import com.evcharger.api.dto.RouteSearchDto;
+import com.evcharger.api.dto.StationAvailabilityDto;
+import com.evcharger.api.dto.StationClusterDto;
 import com.evcharger.api.dto.StationDto;
+import com.evcharger.api.dto.StationFilterDto;
+import com.evcharger.api.dto.VehicleSpecDto;
+import com.evcharger.api.security.UserDetailsImpl;
+import com.evcharger.api.service.KeysetPagination;
 import com.evcharger.api.service.StationService;
+import com.evcharger.api.service.VehicleService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -18,14 +30,55 @@ import java.util.Optional;
 @Tag(name = "Stations", description = "EV charging station management APIs")
 @CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174", "http://localhost:3000"})
 public class StationsController {
+    private static final int MAX_NEAREST_STATIONS = 100;
+    private static final int MAX_MAP_ZOOM = 22;
+    private static final double DEFAULT_NEARBY_RANGE_KM = 50;
+    private static final int MAX_SEARCH_RESULTS = 50;
 
     @Autowired
     private StationService stationService;
 
+    @Autowired
+    private VehicleService vehicleService;
+
+    @Autowired
+    private KeysetPagination keysetPagination;
+
     @GetMapping
     @Operation(summary = "Get all stations", description = "Retrieve all EV charging stations for admin management")
-    public ResponseEntity<?> getStations() {
-        List<StationDto> stations = stationService.getAllStations();
+    public ResponseEntity<?> getStations(StationFilterDto filter,
+                                         @RequestParam(required = false) Integer limit,
+                                         @RequestParam(required = false) String cursor) {
+        List<StationDto> stations = stationService.getAllStations(filter);
+        if (limit == null && cursor == null) {
+            return ResponseEntity.ok(stationsResponse(stations, filter));
+        }
+        int pageSize = keysetPagination.pageSize(limit);
+        Long afterId = keysetPagination.decode("stations", cursor);
+        Map<String, Object> response = keysetPagination.response("stations", "stations",
+                stationsAfter(stations, afterId, pageSize + 1), pageSize, StationDto::getId);
+        // Facet counts still describe every station matching the filter, not just this page
+        if (filter != null && filter.isFacets()) {
+            response.put("facets", stationService.getFacetCounts(stations));
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search stations", description = "Autocomplete approved stations by name or address, optionally ranked by distance")
+    public ResponseEntity<?> searchStations(
+            @RequestParam String q,
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lng,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        if (q.isBlank()) {
+            return ResponseEntity.badRequest().body(Map.of("message", "q must not be blank"));
+        }
+        if (limit < 1) {
+            return ResponseEntity.badRequest().body(Map.of("message", "limit must be at least 1"));
+        }
+        List<StationDto> stations = stationService.searchStations(q, lat, lng, Math.min(limit, MAX_SEARCH_RESULTS));
         return ResponseEntity.ok(Map.of("stations", stations));
     }
 
@@ -39,6 +92,21 @@ public class StationsController {
         return ResponseEntity.notFound().build();
     }
 
+    @GetMapping("/{id}/availability")
+    @Operation(summary = "Get station availability", description = "Free slots per time bucket of a day, within the station's operating hours")
+    public ResponseEntity<?> getStationAvailability(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) Integer bucketMinutes) {
+
+        Optional<StationAvailabilityDto> availability =
+                stationService.getAvailability(id, date != null ? date : LocalDate.now(), bucketMinutes);
+        if (availability.isPresent()) {
+            return ResponseEntity.ok(Map.of("availability", availability.get()));
+        }
+        return ResponseEntity.notFound().build();
+    }
+
     @PostMapping
     @Operation(summary = "Create station", description = "Create a new EV charging station")
     public ResponseEntity<?> createStation(@Valid @RequestBody StationDto stationDto) {
@@ -71,9 +139,136 @@ public class StationsController {
     public ResponseEntity<?> getNearbyStations(
             @RequestParam double lat,
             @RequestParam double lng,
-            @RequestParam(defaultValue = "50") double range) {
-        
-        List<StationDto> nearbyStations = stationService.getNearbyStations(lat, lng, range);
-        return ResponseEntity.ok(Map.of("stations", nearbyStations));
+            @RequestParam(required = false) Double range,
+            @RequestParam(required = false) Double soc,
+            StationFilterDto filter,
+            Authentication authentication) {
+
+        if (soc != null && (soc < 0 || soc > 100)) {
+            return ResponseEntity.badRequest().body(Map.of("message", "soc must be between 0 and 100"));
+        }
+        // Without an explicit range, a known vehicle searches as far as it can go on the given charge;
+        // the vehicle is only looked up when a charge is given, so the default search stays in memory
+        double searchRange = DEFAULT_NEARBY_RANGE_KM;
+        if (range != null) {
+            searchRange = range;
+        } else if (soc != null) {
+            Optional<VehicleSpecDto> vehicle = vehicleService.resolveVehicleSpec(currentUserId(authentication), null, null);
+            if (vehicle.isPresent()) {
+                searchRange = stationService.getEffectiveRadiusKm(vehicle.get().getRangeKm(), soc);
+            }
+        }
+        List<StationDto> nearbyStations = stationService.getNearbyStations(lat, lng, searchRange, filter);
+        return ResponseEntity.ok(stationsResponse(nearbyStations, filter));
+    }
+
+    @GetMapping("/reachable")
+    @Operation(summary = "Get reachable stations", description = "Find stations reachable on the current charge of a vehicle, filtered by compatible connectors")
+    public ResponseEntity<?> getReachableStations(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam double soc,
+            @RequestParam(required = false) Long carId,
+            @RequestParam(required = false) Long modelId,
+            @RequestParam(required = false) String connector,
+            StationFilterDto filter,
+            Authentication authentication) {
+
+        if (soc < 0 || soc > 100) {
+            return ResponseEntity.badRequest().body(Map.of("message", "soc must be between 0 and 100"));
+        }
+        Optional<VehicleSpecDto> vehicle = vehicleService.resolveVehicleSpec(currentUserId(authentication), carId, modelId);
+        if (vehicle.isEmpty() || vehicle.get().getRangeKm() == null) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Vehicle range unknown, pass a carId or modelId"));
+        }
+
+        double radiusKm = stationService.getEffectiveRadiusKm(vehicle.get().getRangeKm(), soc);
+        if (filter.getConnectors() == null || filter.getConnectors().isEmpty()) {
+            if (connector != null) {
+                filter.setConnectors(List.of(connector));
+            } else if (vehicle.get().getConnectorTypes() != null) {
+                filter.setConnectors(List.of(vehicle.get().getConnectorTypes()));
+            }
+        }
+        List<StationDto> stations = stationService.getReachableStations(lat, lng, radiusKm, filter);
+        Map<String, Object> response = stationsResponse(stations, filter);
+        response.put("effectiveRadiusKm", radiusKm);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/along-route")
+    @Operation(summary = "Get stations along a route", description = "Find approved stations within a corridor around an encoded route polyline, ordered by distance along the route")
+    public ResponseEntity<?> getStationsAlongRoute(@Valid @RequestBody RouteSearchDto routeSearch) {
+        double corridorKm = routeSearch.getCorridorKm() != null ? routeSearch.getCorridorKm() : 5.0;
+        List<StationDto> stations = stationService.getStationsAlongRoute(routeSearch.getPolyline(), corridorKm);
+        return ResponseEntity.ok(Map.of("stations", stations));
+    }
+
+    @GetMapping("/nearest")
+    @Operation(summary = "Get nearest stations", description = "Find the k EV charging stations closest to a location")
+    public ResponseEntity<?> getNearestStations(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam(defaultValue = "10") int k) {
+
+        if (k < 1) {
+            return ResponseEntity.badRequest().body(Map.of("message", "k must be at least 1"));
+        }
+        List<StationDto> nearestStations = stationService.getNearestStations(lat, lng, Math.min(k, MAX_NEAREST_STATIONS));
+        return ResponseEntity.ok(Map.of("stations", nearestStations));
+    }
+
+    @GetMapping("/clusters")
+    @Operation(summary = "Get station clusters", description = "Aggregated station markers for a map viewport at a zoom level")
+    public ResponseEntity<?> getStationClusters(
+            @RequestParam double minLat,
+            @RequestParam double minLng,
+            @RequestParam double maxLat,
+            @RequestParam double maxLng,
+            @RequestParam int zoom) {
+
+        if (zoom < 0 || zoom > MAX_MAP_ZOOM) {
+            return ResponseEntity.badRequest().body(Map.of("message", "zoom must be between 0 and " + MAX_MAP_ZOOM));
+        }
+        if (minLat > maxLat || minLat < -90 || maxLat > 90 || minLng < -180 || maxLng > 180) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Invalid viewport bounds"));
+        }
+        List<StationClusterDto> clusters = stationService.getClusters(minLat, minLng, maxLat, maxLng, zoom);
+        return ResponseEntity.ok(Map.of("clusters", clusters));
+    }
+
+    // The station views are served from memory in id order, so a page is a binary search and a slice
+    private static List<StationDto> stationsAfter(List<StationDto> stations, Long afterId, int count) {
+        int from = 0;
+        if (afterId != null) {
+            int low = 0;
+            int high = stations.size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (stations.get(mid).getId() <= afterId) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            from = low;
+        }
+        return stations.subList(from, Math.min(stations.size(), from + count));
+    }
+
+    private Map<String, Object> stationsResponse(List<StationDto> stations, StationFilterDto filter) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("stations", stations);
+        if (filter != null && filter.isFacets()) {
+            response.put("facets", stationService.getFacetCounts(stations));
+        }
+        return response;
+    }
+
+    private Long currentUserId(Authentication authentication) {
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetailsImpl userDetails) {
+            return userDetails.getId();
+        }
+        return null;
     }
-}
\ No newline at end of file
+}
@@ -3,6 +3,7 @@ package com.evcharger.api.controller;
 import com.evcharger.api.dto.ChangePasswordDto;
 import com.evcharger.api.dto.UpdateProfileDto;
 import com.evcharger.api.dto.UserDto;
+import com.evcharger.api.exception.PasswordHashingBusyException;
 import com.evcharger.api.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -59,8 +60,12 @@ public class UsersController {
     public ResponseEntity<?> changePassword(@Valid @RequestBody ChangePasswordDto changePasswordDto,
                                           Authentication authentication) {
         try {
-            userService.changePassword(authentication.getName(), changePasswordDto);
-            return ResponseEntity.ok(Map.of("message", "Password changed successfully"));
+            String token = userService.changePassword(authentication.getName(), changePasswordDto);
+            // Tokens issued before the change no longer work
+            return ResponseEntity.ok(Map.of("message", "Password changed successfully", "token", token));
+        } catch (PasswordHashingBusyException e) {
+            // Answered with 503 by the global handler
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest()
                     .body(Map.of("message", e.getMessage()));
@@ -0,0 +1,27 @@
+package com.evcharger.api.dto;
+
+import java.time.LocalDateTime;
+
+public class AvailabilityBucketDto {
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private Integer freeSlots;
+
+    public AvailabilityBucketDto() {}
+
+    public AvailabilityBucketDto(LocalDateTime start, LocalDateTime end, Integer freeSlots) {
+        this.start = start;
+        this.end = end;
+        this.freeSlots = freeSlots;
+    }
+
+    // Getters and Setters
+    public LocalDateTime getStart() { return start; }
+    public void setStart(LocalDateTime start) { this.start = start; }
+
+    public LocalDateTime getEnd() { return end; }
+    public void setEnd(LocalDateTime end) { this.end = end; }
+
+    public Integer getFreeSlots() { return freeSlots; }
+    public void setFreeSlots(Integer freeSlots) { this.freeSlots = freeSlots; }
+}
@@ -27,6 +27,34 @@ public class BookingDto {
 
     public BookingDto() {}
 
+    // Used by the projection queries in BookingRepository; fills in the same defaults as BookingService
+    public BookingDto(Long id, Long userId, Long stationId, LocalDateTime startTime, LocalDateTime endTime,
+                      String status, BigDecimal amount, String date, String timeSlot, Integer duration,
+                      String paymentMethod, String vehicleType, String vehicleBrand, String vehicleModel,
+                      String vehicleNumber, String paymentId, LocalDateTime createdAt, String cancellationMessage,
+                      String stationName, String userName) {
+        this.id = id;
+        this.userId = userId;
+        this.stationId = stationId;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.status = status != null ? status : "Confirmed";
+        this.amount = amount;
+        this.date = date != null ? date : "";
+        this.timeSlot = timeSlot != null ? timeSlot : "";
+        this.duration = duration;
+        this.paymentMethod = paymentMethod != null ? paymentMethod : "Card";
+        this.vehicleType = vehicleType != null ? vehicleType : "";
+        this.vehicleBrand = vehicleBrand != null ? vehicleBrand : "";
+        this.vehicleModel = vehicleModel != null ? vehicleModel : "";
+        this.vehicleNumber = vehicleNumber != null ? vehicleNumber : "";
+        this.paymentId = paymentId != null ? paymentId : "";
+        this.createdAt = createdAt;
+        this.cancellationMessage = cancellationMessage;
+        this.stationName = stationName;
+        this.userName = userName;
+    }
+
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -0,0 +1,29 @@
+package com.evcharger.api.dto;
+
+import java.time.LocalDateTime;
+
+public class BookingHoldDto {
+    private String id;
+    private Long stationId;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private LocalDateTime expiresAt;
+
+    public BookingHoldDto() {}
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public Long getStationId() { return stationId; }
+    public void setStationId(Long stationId) { this.stationId = stationId; }
+
+    public LocalDateTime getStartTime() { return startTime; }
+    public void setStartTime(LocalDateTime startTime) { this.startTime = startTime; }
+
+    public LocalDateTime getEndTime() { return endTime; }
+    public void setEndTime(LocalDateTime endTime) { this.endTime = endTime; }
+
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+}
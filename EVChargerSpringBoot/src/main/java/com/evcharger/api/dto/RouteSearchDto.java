@@ -0,0 +1,23 @@
+package com.evcharger.api.dto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+
+public class RouteSearchDto {
+    @NotBlank
+    private String polyline;
+
+    @DecimalMin(value = "0.1")
+    @DecimalMax(value = "50")
+    private Double corridorKm = 5.0;
+
+    public RouteSearchDto() {}
+
+    // Getters and Setters
+    public String getPolyline() { return polyline; }
+    public void setPolyline(String polyline) { this.polyline = polyline; }
+
+    public Double getCorridorKm() { return corridorKm; }
+    public void setCorridorKm(Double corridorKm) { this.corridorKm = corridorKm; }
+}
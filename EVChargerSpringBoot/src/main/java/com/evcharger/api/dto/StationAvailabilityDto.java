@@ -0,0 +1,38 @@
+package com.evcharger.api.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public class StationAvailabilityDto {
+    private Long stationId;
+    private LocalDate date;
+    private Integer bucketMinutes;
+    private Integer totalSlots;
+    private String operatingHours;
+    private boolean operatingHoursRecognized;
+    private List<AvailabilityBucketDto> buckets;
+
+    public StationAvailabilityDto() {}
+
+    // Getters and Setters
+    public Long getStationId() { return stationId; }
+    public void setStationId(Long stationId) { this.stationId = stationId; }
+
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+
+    public Integer getBucketMinutes() { return bucketMinutes; }
+    public void setBucketMinutes(Integer bucketMinutes) { this.bucketMinutes = bucketMinutes; }
+
+    public Integer getTotalSlots() { return totalSlots; }
+    public void setTotalSlots(Integer totalSlots) { this.totalSlots = totalSlots; }
+
+    public String getOperatingHours() { return operatingHours; }
+    public void setOperatingHours(String operatingHours) { this.operatingHours = operatingHours; }
+
+    public boolean isOperatingHoursRecognized() { return operatingHoursRecognized; }
+    public void setOperatingHoursRecognized(boolean operatingHoursRecognized) { this.operatingHoursRecognized = operatingHoursRecognized; }
+
+    public List<AvailabilityBucketDto> getBuckets() { return buckets; }
+    public void setBuckets(List<AvailabilityBucketDto> buckets) { this.buckets = buckets; }
+}
@@ -0,0 +1,33 @@
+package com.evcharger.api.dto;
+
+import java.math.BigDecimal;
+
+public class StationClusterDto {
+    private Double latitude;
+    private Double longitude;
+    private Integer count;
+    private Integer availableSlots;
+    private BigDecimal minPricePerKwh;
+    private Long stationId;
+
+    public StationClusterDto() {}
+
+    // Getters and Setters
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+
+    public Integer getCount() { return count; }
+    public void setCount(Integer count) { this.count = count; }
+
+    public Integer getAvailableSlots() { return availableSlots; }
+    public void setAvailableSlots(Integer availableSlots) { this.availableSlots = availableSlots; }
+
+    public BigDecimal getMinPricePerKwh() { return minPricePerKwh; }
+    public void setMinPricePerKwh(BigDecimal minPricePerKwh) { this.minPricePerKwh = minPricePerKwh; }
+
+    public Long getStationId() { return stationId; }
+    public void setStationId(Long stationId) { this.stationId = stationId; }
+}
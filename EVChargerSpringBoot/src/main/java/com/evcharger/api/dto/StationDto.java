@@ -29,11 +29,32 @@ public class StationDto {
     private Integer totalSlots;
     private Integer availableSlots;
     private Double distance;
+    private Double distanceAlongRoute;
     private String ownerName;
     private String approvalStatus;
 
     public StationDto() {}
 
+    public StationDto(StationDto other) {
+        this.id = other.id;
+        this.name = other.name;
+        this.address = other.address;
+        this.latitude = other.latitude;
+        this.longitude = other.longitude;
+        this.connectorTypes = other.connectorTypes;
+        this.powerOutput = other.powerOutput;
+        this.pricePerKwh = other.pricePerKwh;
+        this.amenities = other.amenities;
+        this.operatingHours = other.operatingHours;
+        this.status = other.status;
+        this.totalSlots = other.totalSlots;
+        this.availableSlots = other.availableSlots;
+        this.distance = other.distance;
+        this.distanceAlongRoute = other.distanceAlongRoute;
+        this.ownerName = other.ownerName;
+        this.approvalStatus = other.approvalStatus;
+    }
+
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -77,6 +98,9 @@ public class StationDto {
     public Double getDistance() { return distance; }
     public void setDistance(Double distance) { this.distance = distance; }
 
+    public Double getDistanceAlongRoute() { return distanceAlongRoute; }
+    public void setDistanceAlongRoute(Double distanceAlongRoute) { this.distanceAlongRoute = distanceAlongRoute; }
+
     public String getOwnerName() { return ownerName; }
     public void setOwnerName(String ownerName) { this.ownerName = ownerName; }
 
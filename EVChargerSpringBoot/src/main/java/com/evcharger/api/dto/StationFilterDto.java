@@ -0,0 +1,36 @@
+package com.evcharger.api.dto;
+
+import java.util.List;
+
+public class StationFilterDto {
+    private List<String> connectors;
+    private List<String> amenities;
+    private Double minPowerKw;
+    private Double maxPricePerKwh;
+    private boolean facets;
+
+    public StationFilterDto() {}
+
+    public boolean isEmpty() {
+        return (connectors == null || connectors.isEmpty())
+                && (amenities == null || amenities.isEmpty())
+                && minPowerKw == null
+                && maxPricePerKwh == null;
+    }
+
+    // Getters and Setters
+    public List<String> getConnectors() { return connectors; }
+    public void setConnectors(List<String> connectors) { this.connectors = connectors; }
+
+    public List<String> getAmenities() { return amenities; }
+    public void setAmenities(List<String> amenities) { this.amenities = amenities; }
+
+    public Double getMinPowerKw() { return minPowerKw; }
+    public void setMinPowerKw(Double minPowerKw) { this.minPowerKw = minPowerKw; }
+
+    public Double getMaxPricePerKwh() { return maxPricePerKwh; }
+    public void setMaxPricePerKwh(Double maxPricePerKwh) { this.maxPricePerKwh = maxPricePerKwh; }
+
+    public boolean isFacets() { return facets; }
+    public void setFacets(boolean facets) { this.facets = facets; }
+}
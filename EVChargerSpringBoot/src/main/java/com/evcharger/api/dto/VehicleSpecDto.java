@@ -0,0 +1,20 @@
+package com.evcharger.api.dto;
+
+public class VehicleSpecDto {
+    private Integer rangeKm;
+    private String[] connectorTypes;
+
+    public VehicleSpecDto() {}
+
+    public VehicleSpecDto(Integer rangeKm, String[] connectorTypes) {
+        this.rangeKm = rangeKm;
+        this.connectorTypes = connectorTypes;
+    }
+
+    // Getters and Setters
+    public Integer getRangeKm() { return rangeKm; }
+    public void setRangeKm(Integer rangeKm) { this.rangeKm = rangeKm; }
+
+    public String[] getConnectorTypes() { return connectorTypes; }
+    public void setConnectorTypes(String[] connectorTypes) { this.connectorTypes = connectorTypes; }
+}
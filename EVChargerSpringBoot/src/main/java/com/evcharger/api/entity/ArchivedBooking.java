@@ -0,0 +1,124 @@
+package com.evcharger.api.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A finished (Completed or Cancelled) booking moved out of the Bookings table by the archive
+ * job. Same columns and id as the original row, plus when it was archived.
+ */
+@Entity
+@Table(name = "ArchivedBookings", indexes = {
+        @Index(name = "idx_archived_bookings_user", columnList = "UserId"),
+        @Index(name = "idx_archived_bookings_station", columnList = "StationId")
+})
+public class ArchivedBooking {
+    // Keeps the id the booking had in the Bookings table
+    @Id
+    private Long id;
+
+    @Column(name = "UserId")
+    private Long userId;
+
+    @Column(name = "StationId")
+    private Long stationId;
+
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private String status;
+
+    @Column(precision = 18, scale = 2)
+    private BigDecimal amount;
+
+    private LocalDateTime createdAt;
+
+    private String date;
+    private String timeSlot;
+    private Integer duration;
+    private String paymentMethod;
+    private String vehicleType;
+    private String vehicleBrand;
+    private String vehicleModel;
+    private String vehicleNumber;
+    private String paymentId;
+    private String cancellationMessage;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "UserId", insertable = false, updatable = false)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "StationId", insertable = false, updatable = false)
+    private Station station;
+
+    private LocalDateTime archivedAt;
+
+    // Constructors
+    public ArchivedBooking() {}
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+    public void setArchivedAt(LocalDateTime archivedAt) { this.archivedAt = archivedAt; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public Long getStationId() { return stationId; }
+    public void setStationId(Long stationId) { this.stationId = stationId; }
+
+    public LocalDateTime getStartTime() { return startTime; }
+    public void setStartTime(LocalDateTime startTime) { this.startTime = startTime; }
+
+    public LocalDateTime getEndTime() { return endTime; }
+    public void setEndTime(LocalDateTime endTime) { this.endTime = endTime; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public String getDate() { return date; }
+    public void setDate(String date) { this.date = date; }
+
+    public String getTimeSlot() { return timeSlot; }
+    public void setTimeSlot(String timeSlot) { this.timeSlot = timeSlot; }
+
+    public Integer getDuration() { return duration; }
+    public void setDuration(Integer duration) { this.duration = duration; }
+
+    public String getPaymentMethod() { return paymentMethod; }
+    public void setPaymentMethod(String paymentMethod) { this.paymentMethod = paymentMethod; }
+
+    public String getVehicleType() { return vehicleType; }
+    public void setVehicleType(String vehicleType) { this.vehicleType = vehicleType; }
+
+    public String getVehicleBrand() { return vehicleBrand; }
+    public void setVehicleBrand(String vehicleBrand) { this.vehicleBrand = vehicleBrand; }
+
+    public String getVehicleModel() { return vehicleModel; }
+    public void setVehicleModel(String vehicleModel) { this.vehicleModel = vehicleModel; }
+
+    public String getVehicleNumber() { return vehicleNumber; }
+    public void setVehicleNumber(String vehicleNumber) { this.vehicleNumber = vehicleNumber; }
+
+    public String getPaymentId() { return paymentId; }
+    public void setPaymentId(String paymentId) { this.paymentId = paymentId; }
+
+    public String getCancellationMessage() { return cancellationMessage; }
+    public void setCancellationMessage(String cancellationMessage) { this.cancellationMessage = cancellationMessage; }
+
+    public User getUser() { return user; }
+    public void setUser(User user) { this.user = user; }
+
+    public Station getStation() { return station; }
+    public void setStation(Station station) { this.station = station; }
+}
@@ -7,10 +7,14 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "Bookings")
+@Table(name = "Bookings", indexes = {
+        @Index(name = "idx_bookings_payment", columnList = "paymentId")
+})
 public class Booking {
+    // Pooled sequence (a table on MySQL) so inserts can be JDBC-batched; IDENTITY disables that
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_seq")
+    @SequenceGenerator(name = "booking_seq", sequenceName = "booking_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "UserId")
@@ -0,0 +1,107 @@
+package com.evcharger.api.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "BookingEvents", indexes = {
+        @Index(name = "idx_booking_events_processed", columnList = "processedAt, id")
+})
+public class BookingEvent {
+    public static final String CREATED = "CREATED";
+    public static final String CANCELLED = "CANCELLED";
+    public static final String STATUS_CHANGED = "STATUS_CHANGED";
+
+    // Pooled like booking ids so events written by the booking batch writer are batched too
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_event_seq")
+    @SequenceGenerator(name = "booking_event_seq", sequenceName = "booking_event_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long bookingId;
+
+    private Long stationId;
+
+    private Long userId;
+
+    @Column(nullable = false, length = 32)
+    private String eventType;
+
+    private String oldStatus;
+
+    private String newStatus;
+
+    // Delivery attempts that had a consumer fail; the event is given up after the configured maximum
+    private Integer attempts = 0;
+
+    @Column(length = 500)
+    private String lastError;
+
+    // After a failed delivery the event is not polled again before this time
+    private LocalDateTime nextAttemptAt;
+
+    // Comma separated names of the consumers that have handled the event; retries skip them
+    @Column(length = 500)
+    private String deliveredTo;
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+
+    // Null until the dispatcher has delivered the event
+    private LocalDateTime processedAt;
+
+    // Constructors
+    public BookingEvent() {}
+
+    public BookingEvent(Booking booking, String eventType, String oldStatus) {
+        this.bookingId = booking.getId();
+        this.stationId = booking.getStationId();
+        this.userId = booking.getUserId();
+        this.eventType = eventType;
+        this.oldStatus = oldStatus;
+        this.newStatus = booking.getStatus();
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getBookingId() { return bookingId; }
+    public void setBookingId(Long bookingId) { this.bookingId = bookingId; }
+
+    public Long getStationId() { return stationId; }
+    public void setStationId(Long stationId) { this.stationId = stationId; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public String getEventType() { return eventType; }
+    public void setEventType(String eventType) { this.eventType = eventType; }
+
+    public String getOldStatus() { return oldStatus; }
+    public void setOldStatus(String oldStatus) { this.oldStatus = oldStatus; }
+
+    public String getNewStatus() { return newStatus; }
+    public void setNewStatus(String newStatus) { this.newStatus = newStatus; }
+
+    public Integer getAttempts() { return attempts; }
+    public void setAttempts(Integer attempts) { this.attempts = attempts; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+
+    public LocalDateTime getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+
+    public String getDeliveredTo() { return deliveredTo; }
+    public void setDeliveredTo(String deliveredTo) { this.deliveredTo = deliveredTo; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getProcessedAt() { return processedAt; }
+    public void setProcessedAt(LocalDateTime processedAt) { this.processedAt = processedAt; }
+}
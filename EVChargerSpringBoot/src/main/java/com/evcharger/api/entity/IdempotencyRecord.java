@@ -0,0 +1,65 @@
+package com.evcharger.api.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "IdempotencyRecords")
+public class IdempotencyRecord {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Caller scope, method, path and the client's Idempotency-Key header
+    @Column(nullable = false, unique = true, length = 320)
+    private String idempotencyKey;
+
+    @Column(length = 64)
+    private String requestHash;
+
+    // Null while the request is still running: the row then only reserves the key
+    private Integer statusCode;
+
+    private String contentType;
+
+    @Column(columnDefinition = "TEXT")
+    private String responseBody;
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public IdempotencyRecord() {}
+
+    public IdempotencyRecord(String idempotencyKey, String requestHash, Integer statusCode, String contentType, String responseBody) {
+        this.idempotencyKey = idempotencyKey;
+        this.requestHash = requestHash;
+        this.statusCode = statusCode;
+        this.contentType = contentType;
+        this.responseBody = responseBody;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getIdempotencyKey() { return idempotencyKey; }
+    public void setIdempotencyKey(String idempotencyKey) { this.idempotencyKey = idempotencyKey; }
+
+    public String getRequestHash() { return requestHash; }
+    public void setRequestHash(String requestHash) { this.requestHash = requestHash; }
+
+    public Integer getStatusCode() { return statusCode; }
+    public void setStatusCode(Integer statusCode) { this.statusCode = statusCode; }
+
+    public String getContentType() { return contentType; }
+    public void setContentType(String contentType) { this.contentType = contentType; }
+
+    public String getResponseBody() { return responseBody; }
+    public void setResponseBody(String responseBody) { this.responseBody = responseBody; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
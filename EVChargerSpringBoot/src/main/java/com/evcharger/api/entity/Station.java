@@ -12,7 +12,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "Stations")
+@Table(name = "Stations", indexes = {
+        @Index(name = "idx_stations_lat_lng", columnList = "latitude, longitude")
+})
 public class Station {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -49,6 +51,8 @@ public class Station {
     private String approvalStatus = "Pending";
 
     private Integer totalSlots;
+    // Owned by SlotInventory once the station exists; it writes the column in batches
+    @Column(updatable = false)
     private Integer availableSlots;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -35,6 +35,9 @@ public class User {
 
     private String role;
 
+    // Carried in issued tokens; bumping it revokes every token issued before
+    private Integer tokenVersion = 0;
+
     @CreationTimestamp
     private LocalDateTime createdAt;
 
@@ -90,6 +93,9 @@ public class User {
     public String getRole() { return role; }
     public void setRole(String role) { this.role = role; }
 
+    public Integer getTokenVersion() { return tokenVersion != null ? tokenVersion : 0; }
+    public void setTokenVersion(Integer tokenVersion) { this.tokenVersion = tokenVersion; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
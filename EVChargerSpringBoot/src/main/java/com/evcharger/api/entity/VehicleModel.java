@@ -16,6 +16,11 @@ public class VehicleModel {
     @Column(name = "VehicleBrandId")
     private Long vehicleBrandId;
 
+    private Integer rangeKm;
+
+    @Column(columnDefinition = "TEXT")
+    private String connectorTypes; // JSON array as string
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "VehicleBrandId", insertable = false, updatable = false)
     private VehicleBrand vehicleBrand;
@@ -28,6 +33,13 @@ public class VehicleModel {
         this.vehicleBrandId = vehicleBrandId;
     }
 
+    public VehicleModel(String name, Long vehicleBrandId, Integer rangeKm, String connectorTypes) {
+        this.name = name;
+        this.vehicleBrandId = vehicleBrandId;
+        this.rangeKm = rangeKm;
+        this.connectorTypes = connectorTypes;
+    }
+
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
@@ -37,6 +49,12 @@ public class VehicleModel {
     public Long getVehicleBrandId() { return vehicleBrandId; }
     public void setVehicleBrandId(Long vehicleBrandId) { this.vehicleBrandId = vehicleBrandId; }
 
+    public Integer getRangeKm() { return rangeKm; }
+    public void setRangeKm(Integer rangeKm) { this.rangeKm = rangeKm; }
+
+    public String getConnectorTypes() { return connectorTypes; }
+    public void setConnectorTypes(String connectorTypes) { this.connectorTypes = connectorTypes; }
+
     public VehicleBrand getVehicleBrand() { return vehicleBrand; }
     public void setVehicleBrand(VehicleBrand vehicleBrand) { this.vehicleBrand = vehicleBrand; }
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.evcharger.api.exception;
+
+/**
+ * Thrown when the password hashing pool is saturated, so the request is turned away at once
+ * with 503 instead of queueing behind a login storm.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
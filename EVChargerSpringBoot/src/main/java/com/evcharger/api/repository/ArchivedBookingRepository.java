@@ -0,0 +1,42 @@
+package com.evcharger.api.repository;
+
+import com.evcharger.api.dto.BookingDto;
+import com.evcharger.api.entity.ArchivedBooking;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ArchivedBookingRepository extends JpaRepository<ArchivedBooking, Long> {
+    @Query(BookingRepository.BOOKING_DTO_SELECT + "FROM ArchivedBooking b JOIN b.station s JOIN b.user u")
+    List<BookingDto> findAllBookingDtos();
+
+    @Query(BookingRepository.BOOKING_DTO_SELECT + "FROM ArchivedBooking b JOIN b.station s LEFT JOIN b.user u WHERE b.userId = :userId")
+    List<BookingDto> findBookingDtosByUserId(@Param("userId") Long userId);
+
+    @Query(BookingRepository.BOOKING_DTO_SELECT + "FROM ArchivedBooking b LEFT JOIN b.station s JOIN b.user u WHERE b.stationId = :stationId")
+    List<BookingDto> findBookingDtosByStationId(@Param("stationId") Long stationId);
+
+    @Query(BookingRepository.BOOKING_DTO_SELECT + "FROM ArchivedBooking b JOIN b.station s JOIN b.user u "
+            + "WHERE b.id < :beforeId ORDER BY b.id DESC")
+    List<BookingDto> findBookingDtosBefore(@Param("beforeId") Long beforeId, Pageable pageable);
+
+    @Query(BookingRepository.BOOKING_DTO_SELECT + "FROM ArchivedBooking b JOIN b.station s LEFT JOIN b.user u "
+            + "WHERE b.userId = :userId AND b.id < :beforeId ORDER BY b.id DESC")
+    List<BookingDto> findBookingDtosByUserIdBefore(@Param("userId") Long userId, @Param("beforeId") Long beforeId, Pageable pageable);
+
+    // Copies the given bookings that are still finished; set-based, so rows never pass through the app
+    @Modifying
+    @Query("INSERT INTO ArchivedBooking (id, userId, stationId, startTime, endTime, status, amount, createdAt, date, timeSlot, "
+            + "duration, paymentMethod, vehicleType, vehicleBrand, vehicleModel, vehicleNumber, paymentId, cancellationMessage, archivedAt) "
+            + "SELECT b.id, b.userId, b.stationId, b.startTime, b.endTime, b.status, b.amount, b.createdAt, b.date, b.timeSlot, "
+            + "b.duration, b.paymentMethod, b.vehicleType, b.vehicleBrand, b.vehicleModel, b.vehicleNumber, b.paymentId, b.cancellationMessage, :archivedAt "
+            + "FROM Booking b WHERE b.id IN :ids AND b.status IN ('Cancelled', 'Completed')")
+    int copyFinishedBookings(@Param("ids") List<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+}
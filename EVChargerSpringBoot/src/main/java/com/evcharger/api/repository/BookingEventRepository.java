@@ -0,0 +1,26 @@
+package com.evcharger.api.repository;
+
+import com.evcharger.api.entity.BookingEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface BookingEventRepository extends JpaRepository<BookingEvent, Long> {
+    // Unprocessed events that are not backing off after a failed delivery
+    @Query("SELECT e FROM BookingEvent e WHERE e.processedAt IS NULL AND e.id > :afterId " +
+            "AND (e.nextAttemptAt IS NULL OR e.nextAttemptAt <= :now) ORDER BY e.id")
+    List<BookingEvent> findPendingAfter(@Param("afterId") Long afterId, @Param("now") LocalDateTime now, Pageable pageable);
+
+    long countByProcessedAtIsNull();
+
+    @Modifying
+    @Query("DELETE FROM BookingEvent e WHERE e.processedAt < :cutoff")
+    int deleteProcessedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
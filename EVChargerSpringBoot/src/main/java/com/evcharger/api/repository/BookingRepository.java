@@ -1,24 +1,56 @@
 package com.evcharger.api.repository;
 
+import com.evcharger.api.dto.BookingDto;
 import com.evcharger.api.entity.Booking;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
     List<Booking> findByUserId(Long userId);
     List<Booking> findByStationId(Long stationId);
+    boolean existsByPaymentId(String paymentId);
     
-    @Query("SELECT b FROM Booking b JOIN FETCH b.station JOIN FETCH b.user")
-    List<Booking> findAllWithStationAndUser();
-    
-    @Query("SELECT b FROM Booking b JOIN FETCH b.station WHERE b.userId = :userId")
-    List<Booking> findByUserIdWithStation(@Param("userId") Long userId);
-    
-    @Query("SELECT b FROM Booking b JOIN FETCH b.user WHERE b.stationId = :stationId")
-    List<Booking> findByStationIdWithUser(@Param("stationId") Long stationId);
+    // Select list of the BookingDto projections: booking columns plus station and user names, no entities
+    String BOOKING_DTO_SELECT = "SELECT new com.evcharger.api.dto.BookingDto(b.id, b.userId, b.stationId, "
+            + "b.startTime, b.endTime, b.status, b.amount, b.date, b.timeSlot, b.duration, b.paymentMethod, "
+            + "b.vehicleType, b.vehicleBrand, b.vehicleModel, b.vehicleNumber, b.paymentId, b.createdAt, "
+            + "b.cancellationMessage, s.name, u.name) ";
+
+    @Query(BOOKING_DTO_SELECT + "FROM Booking b JOIN b.station s JOIN b.user u")
+    List<BookingDto> findAllBookingDtos();
+
+    @Query(BOOKING_DTO_SELECT + "FROM Booking b JOIN b.station s LEFT JOIN b.user u WHERE b.userId = :userId")
+    List<BookingDto> findBookingDtosByUserId(@Param("userId") Long userId);
+
+    @Query(BOOKING_DTO_SELECT + "FROM Booking b LEFT JOIN b.station s JOIN b.user u WHERE b.stationId = :stationId")
+    List<BookingDto> findBookingDtosByStationId(@Param("stationId") Long stationId);
+
+    // Keyset pages, newest first: rows with id below the previous page's last id
+    @Query(BOOKING_DTO_SELECT + "FROM Booking b JOIN b.station s JOIN b.user u WHERE b.id < :beforeId ORDER BY b.id DESC")
+    List<BookingDto> findBookingDtosBefore(@Param("beforeId") Long beforeId, Pageable pageable);
+
+    @Query(BOOKING_DTO_SELECT + "FROM Booking b JOIN b.station s LEFT JOIN b.user u "
+            + "WHERE b.userId = :userId AND b.id < :beforeId ORDER BY b.id DESC")
+    List<BookingDto> findBookingDtosByUserIdBefore(@Param("userId") Long userId, @Param("beforeId") Long beforeId, Pageable pageable);
+
+    // [bookingId, stationId] of every booking that still holds a slot
+    @Query("SELECT b.id, b.stationId FROM Booking b WHERE b.status NOT IN ('Cancelled', 'Completed')")
+    List<Object[]> findActiveBookingStations();
+
+    // Finished bookings that ended (or, without an end time, were created) before the cutoff, oldest first
+    @Query("SELECT b.id FROM Booking b WHERE b.status IN ('Cancelled', 'Completed') "
+            + "AND COALESCE(b.endTime, b.createdAt) < :cutoff ORDER BY b.id")
+    List<Long> findArchivableIds(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Booking b WHERE b.id IN :ids AND b.status IN ('Cancelled', 'Completed')")
+    int deleteFinishedBookings(@Param("ids") List<Long> ids);
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.evcharger.api.repository;
+
+import com.evcharger.api.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+    Optional<IdempotencyRecord> findByIdempotencyKey(String idempotencyKey);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyRecord r SET r.requestHash = :requestHash, r.statusCode = :statusCode, " +
+            "r.contentType = :contentType, r.responseBody = :responseBody " +
+            "WHERE r.idempotencyKey = :key AND r.statusCode IS NULL")
+    int complete(@Param("key") String key, @Param("requestHash") String requestHash, @Param("statusCode") Integer statusCode,
+                 @Param("contentType") String contentType, @Param("responseBody") String responseBody);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.idempotencyKey = :key AND r.statusCode IS NULL")
+    int deletePending(@Param("key") String key);
+
+    // Reservations left behind by an instance that died mid-request, and responses past their TTL
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.idempotencyKey = :key " +
+            "AND ((r.statusCode IS NULL AND r.createdAt < :pendingCutoff) OR r.createdAt < :expiredCutoff)")
+    int deleteStale(@Param("key") String key, @Param("pendingCutoff") LocalDateTime pendingCutoff,
+                    @Param("expiredCutoff") LocalDateTime expiredCutoff);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,9 +1,13 @@
 package com.evcharger.api.repository;
 
 import com.evcharger.api.entity.Review;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface ReviewRepository extends JpaRepository<Review, Long> {
+    List<Review> findByIdLessThanOrderByIdDesc(Long id, Pageable pageable);
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.evcharger.api.repository;
 import com.evcharger.api.entity.Station;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -20,4 +21,22 @@ public interface StationRepository extends JpaRepository<Station, Long> {
     
     @Query("SELECT s FROM Station s LEFT JOIN FETCH s.stationMaster")
     List<Station> findAllWithStationMaster();
+
+    // MySQL only: relies on the generated, SPATIAL-indexed location column (see StationLocationSchemaInitializer)
+    @Query(value = "SELECT s.* FROM stations s " +
+            "WHERE s.approval_status = 'Approved' AND s.status = 'Available' " +
+            "AND MBRContains(ST_SRID(ST_MakeEnvelope(POINT(:minLng, :minLat), POINT(:maxLng, :maxLat)), 4326), s.location) " +
+            "AND ST_Distance_Sphere(s.location, ST_SRID(POINT(:lng, :lat), 4326)) <= :radiusMeters " +
+            "ORDER BY ST_Distance_Sphere(s.location, ST_SRID(POINT(:lng, :lat), 4326)), s.available_slots DESC",
+            nativeQuery = true)
+    List<Station> findSearchableWithinRadius(@Param("lat") double lat, @Param("lng") double lng,
+                                             @Param("radiusMeters") double radiusMeters,
+                                             @Param("minLat") double minLat, @Param("maxLat") double maxLat,
+                                             @Param("minLng") double minLng, @Param("maxLng") double maxLng);
+
+    // Portable fallback: bounding box prefilter on the (latitude, longitude) index
+    @Query("SELECT s FROM Station s WHERE s.approvalStatus = 'Approved' AND s.status = 'Available' " +
+            "AND s.latitude BETWEEN :minLat AND :maxLat AND s.longitude BETWEEN :minLng AND :maxLng")
+    List<Station> findSearchableInBoundingBox(@Param("minLat") double minLat, @Param("maxLat") double maxLat,
+                                              @Param("minLng") double minLng, @Param("maxLng") double maxLng);
 }
\ No newline at end of file
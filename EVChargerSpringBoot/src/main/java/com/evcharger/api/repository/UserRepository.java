@@ -1,6 +1,7 @@
 package com.evcharger.api.repository;
 
 import com.evcharger.api.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -8,15 +9,26 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
+    List<User> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
     boolean existsByEmail(String email);
     
     @Modifying
     @Transactional
-    @Query("UPDATE User u SET u.passwordHash = :password WHERE u.email = :email")
+    @Query("UPDATE User u SET u.passwordHash = :password, u.tokenVersion = COALESCE(u.tokenVersion, 0) + 1 WHERE u.email = :email")
     void updatePasswordByEmail(@Param("email") String email, @Param("password") String password);
+
+    // Re-encoding the same password (cost factor upgrade) leaves issued tokens valid
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.passwordHash = :password WHERE u.email = :email")
+    int updatePasswordHashByEmail(@Param("email") String email, @Param("password") String password);
+
+    @Query("SELECT COALESCE(u.tokenVersion, 0) FROM User u WHERE u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") Long id);
 }
\ No newline at end of file
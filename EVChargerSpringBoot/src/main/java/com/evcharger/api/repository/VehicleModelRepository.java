@@ -5,8 +5,11 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface VehicleModelRepository extends JpaRepository<VehicleModel, Long> {
     List<VehicleModel> findByVehicleBrandId(Long vehicleBrandId);
+    Optional<VehicleModel> findFirstByNameIgnoreCase(String name);
+    List<VehicleModel> findByRangeKmIsNull();
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.evcharger.api.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,6 +8,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -24,6 +26,16 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private UserTokenVersions userTokenVersions;
+
+    @Autowired
+    private RevokedTokens revokedTokens;
+
+    // false: authorities come from the (cached) live user record instead of the token's claims
+    @Value("${spring.security.jwt.claims-principal:true}")
+    private boolean claimsPrincipal;
+
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
     @Override
@@ -32,10 +44,9 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            Claims claims = jwt != null ? jwtUtils.parseClaims(jwt) : null;
+            UserDetails userDetails = claims != null ? loadPrincipal(claims) : null;
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authentication = 
                     new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -49,6 +60,28 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    // Built from the token's claims; only tokens issued before the claims existed load the user
+    private UserDetails loadPrincipal(Claims claims) {
+        if (revokedTokens.isRevoked(claims.getId())) {
+            logger.info("Rejected logged out token {}", claims.getId());
+            return null;
+        }
+        Long userId = claims.get(JwtUtils.CLAIM_USER_ID, Long.class);
+        String role = claims.get(JwtUtils.CLAIM_ROLE, String.class);
+        Integer tokenVersion = claims.get(JwtUtils.CLAIM_TOKEN_VERSION, Integer.class);
+        if (userId == null || role == null || tokenVersion == null) {
+            return userDetailsService.loadUserByUsername(claims.getSubject());
+        }
+        if (!userTokenVersions.isCurrent(userId, tokenVersion)) {
+            logger.info("Rejected revoked token for user {}", userId);
+            return null;
+        }
+        if (!claimsPrincipal) {
+            return userDetailsService.loadUserByUsername(claims.getSubject());
+        }
+        return UserDetailsImpl.fromClaims(userId, claims.getSubject(), role);
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
 
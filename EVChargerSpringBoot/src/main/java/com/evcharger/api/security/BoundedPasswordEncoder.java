@@ -0,0 +1,129 @@
+package com.evcharger.api.security;
+
+import com.evcharger.api.exception.PasswordHashingBusyException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs the wrapped (BCrypt) encoder on a fixed pool sized to the CPU cores with a bounded
+ * queue, so a burst of logins or registrations can use at most that many cores for hashing
+ * and leaves the rest of the API responsive. When the queue is full, or a hash is not done
+ * within the wait limit, the caller gets a {@link PasswordHashingBusyException} (503) at once.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long waitMillis;
+
+    private final AtomicLong encodes = new AtomicLong();
+    private final AtomicLong matches = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong hashed = new AtomicLong();
+    private final AtomicLong hashNanos = new AtomicLong();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+    private final AtomicLong queueWaitNanos = new AtomicLong();
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, long waitMillis) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.delegate = delegate;
+        this.waitMillis = waitMillis;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        encodes.incrementAndGet();
+        return run(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        matches.incrementAndGet();
+        return run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    // Only parses the stored hash, so it runs on the caller's thread
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public Map<String, Object> getMetrics() {
+        long hashes = hashed.get();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("threads", executor.getMaximumPoolSize());
+        metrics.put("active", executor.getActiveCount());
+        metrics.put("queueDepth", executor.getQueue().size());
+        metrics.put("queueCapacity", executor.getQueue().size() + executor.getQueue().remainingCapacity());
+        metrics.put("encodes", encodes.get());
+        metrics.put("matches", matches.get());
+        metrics.put("completed", hashes);
+        metrics.put("rejected", rejected.get());
+        metrics.put("timeouts", timeouts.get());
+        metrics.put("avgHashMillis", hashes > 0 ? hashNanos.get() / hashes / 1_000_000.0 : 0.0);
+        metrics.put("maxHashMillis", maxHashNanos.get() / 1_000_000.0);
+        metrics.put("avgQueueWaitMillis", hashes > 0 ? queueWaitNanos.get() / hashes / 1_000_000.0 : 0.0);
+        return metrics;
+    }
+
+    private <T> T run(Callable<T> hash) {
+        long submitted = System.nanoTime();
+        Future<T> result;
+        try {
+            result = executor.submit(() -> {
+                long start = System.nanoTime();
+                queueWaitNanos.addAndGet(start - submitted);
+                try {
+                    return hash.call();
+                } finally {
+                    long elapsed = System.nanoTime() - start;
+                    hashed.incrementAndGet();
+                    hashNanos.addAndGet(elapsed);
+                    maxHashNanos.accumulateAndGet(elapsed, Math::max);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw new PasswordHashingBusyException("Too many sign-in requests, please try again shortly");
+        }
+        try {
+            return result.get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            timeouts.incrementAndGet();
+            throw new PasswordHashingBusyException("Too many sign-in requests, please try again shortly");
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while hashing password");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.evcharger.api.security;
+
+import com.evcharger.api.service.IdempotencyService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Makes POSTs to the configured paths safe to retry. A request carrying an Idempotency-Key
+ * header is run once per caller and key; a retry with the same key and body gets the stored
+ * response back without reaching the controller, a retry while the first attempt is still
+ * running gets 409, and reusing a key with a different body gets 422. Only successful
+ * responses are stored, so failed attempts can be retried. Runs after {@link AuthTokenFilter}
+ * so keys are scoped to the authenticated user; anonymous requests are passed on untouched
+ * (and rejected by authorization), and bodies over the size limit get 413 without being
+ * buffered.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+    public static final String HEADER = "Idempotency-Key";
+    private static final int MAX_KEY_LENGTH = 200;
+
+    private final IdempotencyService idempotencyService;
+    private final Set<String> paths;
+    private final int maxBodyBytes;
+
+    public IdempotencyFilter(IdempotencyService idempotencyService, Set<String> paths, int maxBodyBytes) {
+        this.idempotencyService = idempotencyService;
+        this.paths = paths;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod())
+                || !paths.contains(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String clientKey = request.getHeader(HEADER);
+        String callerScope = callerScope();
+        if (!StringUtils.hasText(clientKey) || callerScope == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (clientKey.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpServletResponse.SC_BAD_REQUEST, HEADER + " must be at most " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        CachedBodyRequest cachedRequest = CachedBodyRequest.read(request, maxBodyBytes);
+        if (cachedRequest == null) {
+            writeError(response, HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, "Request body must be at most " + maxBodyBytes + " bytes");
+            return;
+        }
+        String requestHash = sha256(cachedRequest.body);
+        String key = callerScope + " POST " + request.getRequestURI() + " " + clientKey;
+
+        if (replay(key, requestHash, response)) {
+            return;
+        }
+        if (!idempotencyService.begin(key)) {
+            // The first attempt may have finished between the lookup and begin()
+            if (!replay(key, requestHash, response)) {
+                writeError(response, HttpServletResponse.SC_CONFLICT, "A request with this " + HEADER + " is still being processed");
+            }
+            return;
+        }
+        boolean saved = false;
+        try {
+            ContentCachingResponseWrapper cachingResponse = new ContentCachingResponseWrapper(response);
+            filterChain.doFilter(cachedRequest, cachingResponse);
+            int status = cachingResponse.getStatus();
+            if (status >= 200 && status < 300) {
+                idempotencyService.save(key, requestHash, status, cachingResponse.getContentType(),
+                        cachingResponse.getContentAsByteArray());
+                saved = true;
+            }
+            cachingResponse.copyBodyToResponse();
+        } finally {
+            if (!saved) {
+                idempotencyService.abandon(key);
+            }
+            idempotencyService.end(key);
+        }
+    }
+
+    private boolean replay(String key, String requestHash, HttpServletResponse response) throws IOException {
+        Optional<IdempotencyService.StoredResponse> stored = idempotencyService.find(key);
+        if (stored.isEmpty()) {
+            return false;
+        }
+        if (stored.get().getRequestHash() != null && !stored.get().getRequestHash().equals(requestHash)) {
+            writeError(response, 422, HEADER + " was already used for a different request");
+            return true;
+        }
+        response.setStatus(stored.get().getStatusCode());
+        if (stored.get().getContentType() != null) {
+            response.setContentType(stored.get().getContentType());
+        }
+        response.setHeader("Idempotent-Replayed", "true");
+        response.getOutputStream().write(stored.get().getBody());
+        return true;
+    }
+
+    private static String callerScope() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetailsImpl userDetails) {
+            return "user:" + userDetails.getId();
+        }
+        return null;
+    }
+
+    private static void writeError(HttpServletResponse response, int status, String message) throws IOException {
+        response.setStatus(status);
+        response.setContentType("application/json");
+        response.getOutputStream().write(("{\"message\":\"" + message + "\"}").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String sha256(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // Reads the body up front so it can be hashed and still be read by the controller
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        // Null if the body is larger than maxBytes; at most maxBytes + 1 bytes are read to find out
+        private static CachedBodyRequest read(HttpServletRequest request, int maxBytes) throws IOException {
+            if (request.getContentLengthLong() > maxBytes) {
+                return null;
+            }
+            byte[] body = request.getInputStream().readNBytes(maxBytes + 1);
+            return body.length > maxBytes ? null : new CachedBodyRequest(request, body);
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // The body is already in memory, so it is all available at once
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        listener.onDataAvailable();
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding() != null ? getCharacterEncoding() : StandardCharsets.UTF_8.name();
+            return new BufferedReader(new InputStreamReader(getInputStream(), Charset.forName(encoding)));
+        }
+    }
+}
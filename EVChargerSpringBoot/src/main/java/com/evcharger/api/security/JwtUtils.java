@@ -1,21 +1,32 @@
 package com.evcharger.api.security;
 
+import com.evcharger.api.entity.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Component
 public class JwtUtils {
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
+    // Claims that let the auth filter build the principal without loading the user
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
+
     @Value("${spring.security.jwt.secret-key}")
     private String jwtSecret;
 
@@ -28,42 +39,78 @@ public class JwtUtils {
     @Value("${spring.security.jwt.audience}")
     private String jwtAudience;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
-    }
+    @Value("${spring.security.jwt.verified-cache-size:10000}")
+    private int verifiedCacheSize;
+
+    // Entries looked at per eviction; the least recently used of them goes
+    private static final int EVICTION_SAMPLE = 8;
+
+    // A hit refreshes the entry's last use at most this often, so hot tokens are not written on every request
+    private static final long ACCESS_RESOLUTION_MS = 1000;
+
+    // Key and parser are immutable and thread-safe, so they are built once
+    private SecretKey signingKey;
+    private JwtParser parser;
 
-    public String generateJwtToken(Authentication authentication) {
-        UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
-        return generateTokenFromUsername(userPrincipal.getUsername());
+    private final AtomicLong verifiedHits = new AtomicLong();
+    private final AtomicLong verifiedMisses = new AtomicLong();
+    private final AtomicLong verifiedEvictions = new AtomicLong();
+
+    // Claims of recently verified tokens, keyed by the whole token so a hit is an exact match.
+    // Reads take no lock; when full, an insert evicts by sampling, preferring expired entries
+    private final Map<String, VerifiedToken> verified = new ConcurrentHashMap<>(256);
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        parser = Jwts.parser().verifyWith(signingKey).build();
     }
 
-    public String generateTokenFromUsername(String username) {
+    public String generateTokenForUser(User user) {
         return Jwts.builder()
-                .subject(username)
+                .id(UUID.randomUUID().toString())
+                .subject(user.getEmail())
+                .claim(CLAIM_USER_ID, user.getId())
+                .claim(CLAIM_ROLE, user.getRole())
+                .claim(CLAIM_TOKEN_VERSION, user.getTokenVersion())
                 .issuer(jwtIssuer)
                 .audience().add(jwtAudience).and()
                 .issuedAt(new Date())
                 .expiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
-    public String getUserNameFromJwtToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
-    }
-
-    public boolean validateJwtToken(String authToken) {
+    /**
+     * Verifies the token and returns its claims, or null if it is invalid or expired. A token
+     * verified before is answered from memory until it expires, skipping the signature check;
+     * revocation is still checked by the caller on every request.
+     */
+    public Claims parseClaims(String authToken) {
+        if (authToken != null && verifiedCacheSize > 0) {
+            VerifiedToken cached = verified.get(authToken);
+            if (cached != null) {
+                long now = System.currentTimeMillis();
+                if (cached.expiresAt > now) {
+                    if (now - cached.lastUsed > ACCESS_RESOLUTION_MS) {
+                        cached.lastUsed = now;
+                    }
+                    verifiedHits.incrementAndGet();
+                    return cached.claims;
+                }
+                verified.remove(authToken, cached);
+            }
+            verifiedMisses.incrementAndGet();
+        }
         try {
-            Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(authToken);
-            return true;
+            Claims claims = parser.parseSignedClaims(authToken).getPayload();
+            if (verifiedCacheSize > 0 && claims.getExpiration() != null) {
+                verified.put(authToken, new VerifiedToken(claims, claims.getExpiration().getTime()));
+                while (verified.size() > verifiedCacheSize && evictSample()) {
+                    verifiedEvictions.incrementAndGet();
+                }
+            }
+            return claims;
         } catch (MalformedJwtException e) {
             logger.error("Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
@@ -73,6 +120,48 @@ public class JwtUtils {
         } catch (IllegalArgumentException e) {
             logger.error("JWT claims string is empty: {}", e.getMessage());
         }
-        return false;
+        return null;
+    }
+
+    public Map<String, Object> getVerifiedCacheMetrics() {
+        long hits = verifiedHits.get();
+        long misses = verifiedMisses.get();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("size", verified.size());
+        metrics.put("maxEntries", verifiedCacheSize);
+        metrics.put("hits", hits);
+        metrics.put("misses", misses);
+        metrics.put("hitRate", hits + misses > 0 ? (double) hits / (hits + misses) : 0.0);
+        metrics.put("evictions", verifiedEvictions.get());
+        return metrics;
+    }
+
+    // Removes an expired entry, or the least recently used of a few; false if another thread emptied the map
+    private boolean evictSample() {
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<String, VerifiedToken>> entries = verified.entrySet().iterator();
+        Map.Entry<String, VerifiedToken> victim = null;
+        for (int i = 0; i < EVICTION_SAMPLE && entries.hasNext(); i++) {
+            Map.Entry<String, VerifiedToken> entry = entries.next();
+            if (entry.getValue().expiresAt <= now) {
+                victim = entry;
+                break;
+            }
+            if (victim == null || entry.getValue().lastUsed < victim.getValue().lastUsed) {
+                victim = entry;
+            }
+        }
+        return victim != null && verified.remove(victim.getKey(), victim.getValue());
+    }
+
+    private static final class VerifiedToken {
+        private final Claims claims;
+        private final long expiresAt;
+        private volatile long lastUsed = System.currentTimeMillis();
+
+        private VerifiedToken(Claims claims, long expiresAt) {
+            this.claims = claims;
+            this.expiresAt = expiresAt;
+        }
     }
-}
\ No newline at end of file
+}
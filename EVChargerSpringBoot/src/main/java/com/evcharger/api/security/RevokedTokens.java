@@ -0,0 +1,190 @@
+package com.evcharger.api.security;
+
+import com.evcharger.api.entity.RevokedToken;
+import com.evcharger.api.repository.RevokedTokenRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Ids (jti) of tokens revoked by logout before they expired. Revocations are stored in the
+ * RevokedTokens table and mirrored in memory as a Bloom filter plus the exact set of ids, so
+ * the auth filter checks a token with a few bit reads and no allocation; the set is only
+ * consulted when the filter reports a possible hit. Revocations made on this instance apply
+ * at once; the filter is rebuilt from the table periodically to pick up revocations made
+ * elsewhere and to drop expired ids.
+ */
+@Component
+public class RevokedTokens {
+    private static final Logger logger = LoggerFactory.getLogger(RevokedTokens.class);
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Value("${spring.security.jwt.revocation.expected-tokens:10000}")
+    private int expectedTokens;
+
+    @Value("${spring.security.jwt.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    // Held while rebuilding, so a revocation is either read from the table or added to the new filter
+    private final Object rebuildLock = new Object();
+    private volatile Filter filter;
+
+    private final AtomicLong revocations = new AtomicLong();
+    private final AtomicLong possibleHits = new AtomicLong();
+    private final AtomicLong falsePositives = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong rebuilds = new AtomicLong();
+    private volatile long lastRebuildMillis;
+
+    @PostConstruct
+    public void init() {
+        filter = new Filter(expectedTokens, falsePositiveRate);
+        rebuild();
+    }
+
+    /** True if the token with this id was revoked; tokens without an id cannot be. */
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null) {
+            return false;
+        }
+        Filter current = filter;
+        if (!current.mightContain(tokenId)) {
+            return false;
+        }
+        possibleHits.incrementAndGet();
+        if (current.ids.contains(tokenId)) {
+            rejected.incrementAndGet();
+            return true;
+        }
+        falsePositives.incrementAndGet();
+        return false;
+    }
+
+    public void revoke(String tokenId, Long userId, Date expiresAt) {
+        revokedTokenRepository.save(new RevokedToken(tokenId, userId,
+                LocalDateTime.ofInstant(expiresAt.toInstant(), ZoneId.systemDefault())));
+        synchronized (rebuildLock) {
+            filter.add(tokenId);
+        }
+        revocations.incrementAndGet();
+    }
+
+    @Scheduled(initialDelayString = "${spring.security.jwt.revocation.refresh-ms:60000}",
+            fixedDelayString = "${spring.security.jwt.revocation.refresh-ms:60000}")
+    public void rebuild() {
+        long start = System.nanoTime();
+        synchronized (rebuildLock) {
+            List<String> ids;
+            try {
+                ids = revokedTokenRepository.findUnexpiredIds(LocalDateTime.now());
+            } catch (DataAccessException e) {
+                logger.warn("Could not load revoked tokens, keeping the current filter: {}", e.getMessage());
+                return;
+            }
+            // Sized with headroom so revocations until the next rebuild keep the false positive rate
+            Filter rebuilt = new Filter(Math.max(expectedTokens, ids.size() * 2), falsePositiveRate);
+            for (String id : ids) {
+                rebuilt.add(id);
+            }
+            filter = rebuilt;
+        }
+        rebuilds.incrementAndGet();
+        lastRebuildMillis = (System.nanoTime() - start) / 1_000_000;
+    }
+
+    @Scheduled(fixedDelayString = "${spring.security.jwt.revocation.cleanup-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        int deleted = revokedTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            logger.info("Purged {} expired revoked tokens", deleted);
+        }
+    }
+
+    public Map<String, Object> getMetrics() {
+        Filter current = filter;
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("revokedIds", current.ids.size());
+        metrics.put("filterBits", current.bitCount);
+        metrics.put("hashFunctions", current.hashCount);
+        metrics.put("revocations", revocations.get());
+        metrics.put("possibleHits", possibleHits.get());
+        metrics.put("falsePositives", falsePositives.get());
+        metrics.put("rejected", rejected.get());
+        metrics.put("rebuilds", rebuilds.get());
+        metrics.put("lastRebuildMillis", lastRebuildMillis);
+        return metrics;
+    }
+
+    private static final class Filter {
+        private final AtomicLongArray bits;
+        private final int bitCount;
+        private final int hashCount;
+        private final Set<String> ids;
+
+        private Filter(int capacity, double falsePositiveRate) {
+            double ln2 = Math.log(2);
+            long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (ln2 * ln2));
+            int words = (int) Math.max(1, Math.min(Integer.MAX_VALUE / 64, (optimalBits + 63) / 64));
+            this.bits = new AtomicLongArray(words);
+            this.bitCount = words * 64;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * ln2));
+            this.ids = ConcurrentHashMap.newKeySet(capacity);
+        }
+
+        private void add(String id) {
+            int h1 = id.hashCode();
+            int h2 = secondHash(id);
+            for (int i = 0; i < hashCount; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bitCount);
+                long mask = 1L << bit;
+                int word = bit >>> 6;
+                bits.getAndAccumulate(word, mask, (a, b) -> a | b);
+            }
+            ids.add(id);
+        }
+
+        // String caches its hashCode and the second hash walks the chars, so no allocation
+        private boolean mightContain(String id) {
+            int h1 = id.hashCode();
+            int h2 = secondHash(id);
+            for (int i = 0; i < hashCount; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static int secondHash(String id) {
+            int h = 0x9747b28c;
+            for (int i = 0; i < id.length(); i++) {
+                h ^= id.charAt(i);
+                h *= 0x5bd1e995;
+                h ^= h >>> 15;
+            }
+            // Odd, so successive probes do not repeat early
+            return h | 1;
+        }
+    }
+}
@@ -42,6 +42,11 @@ public class UserDetailsImpl implements UserDetails {
                 authorities);
     }
 
+    // Principal for a token carrying the user id and role claims; no password is needed after login
+    public static UserDetailsImpl fromClaims(Long id, String email, String role) {
+        return new UserDetailsImpl(id, email, email, "", List.of(new SimpleGrantedAuthority("ROLE_" + role)));
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return authorities;
@@ -3,22 +3,124 @@ package com.evcharger.api.security;
 import com.evcharger.api.entity.User;
 import com.evcharger.api.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads principals by email through a bounded, least-recently-used cache, so requests that
+ * need the live user record do not each read the Users table. Entries expire after a short
+ * time; changes made on this instance evict the entry at once, changes made elsewhere are
+ * seen within that time. Unknown emails are not cached. Password hashes below the configured
+ * cost are replaced at login through {@link #updatePassword}.
+ */
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
     @Autowired
     UserRepository userRepository;
 
+    @Value("${spring.security.principal-cache.ttl-ms:60000}")
+    private long ttlMillis;
+
+    @Value("${spring.security.principal-cache.max-entries:10000}")
+    private int maxEntries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final Map<String, CachedPrincipal> principals = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedPrincipal> eldest) {
+            if (size() > maxEntries) {
+                evictions.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    };
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        long now = System.currentTimeMillis();
+        synchronized (principals) {
+            CachedPrincipal cached = principals.get(username);
+            if (cached != null) {
+                if (now - cached.loadedAt <= ttlMillis) {
+                    hits.incrementAndGet();
+                    return cached.principal;
+                }
+                principals.remove(username);
+                expirations.incrementAndGet();
+            }
+        }
+        misses.incrementAndGet();
+
         User user = userRepository.findByEmail(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User Not Found with email: " + username));
 
-        return UserDetailsImpl.build(user);
+        UserDetailsImpl principal = UserDetailsImpl.build(user);
+        if (maxEntries > 0) {
+            synchronized (principals) {
+                principals.put(username, new CachedPrincipal(principal, now));
+            }
+        }
+        return principal;
+    }
+
+    // Called after a successful login whose stored hash uses an older cost factor
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePasswordHashByEmail(user.getUsername(), newPassword);
+        evict(user.getUsername());
+        UserDetailsImpl principal = (UserDetailsImpl) user;
+        return new UserDetailsImpl(principal.getId(), principal.getUsername(), principal.getEmail(),
+                newPassword, principal.getAuthorities());
+    }
+
+    /** Drops the cached principal after the user's password, profile or role changed. */
+    public void evict(String email) {
+        synchronized (principals) {
+            if (principals.remove(email) != null) {
+                invalidations.incrementAndGet();
+            }
+        }
+    }
+
+    public Map<String, Object> getMetrics() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        synchronized (principals) {
+            metrics.put("size", principals.size());
+        }
+        metrics.put("maxEntries", maxEntries);
+        metrics.put("ttlMs", ttlMillis);
+        metrics.put("hits", hitCount);
+        metrics.put("misses", missCount);
+        metrics.put("hitRate", hitCount + missCount > 0 ? (double) hitCount / (hitCount + missCount) : 0.0);
+        metrics.put("evictions", evictions.get());
+        metrics.put("expirations", expirations.get());
+        metrics.put("invalidations", invalidations.get());
+        return metrics;
+    }
+
+    private static final class CachedPrincipal {
+        private final UserDetailsImpl principal;
+        private final long loadedAt;
+
+        private CachedPrincipal(UserDetailsImpl principal, long loadedAt) {
+            this.principal = principal;
+            this.loadedAt = loadedAt;
+        }
     }
-}
\ No newline at end of file
+}
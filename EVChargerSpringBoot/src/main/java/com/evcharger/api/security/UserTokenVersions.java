@@ -0,0 +1,59 @@
+package com.evcharger.api.security;
+
+import com.evcharger.api.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Current token version of each user, so the auth filter can reject revoked tokens without
+ * loading the user. Versions are read with a single-column query and kept for a short time;
+ * changes made on this instance evict the entry at once, changes made elsewhere are seen
+ * within the cache time.
+ */
+@Component
+public class UserTokenVersions {
+    private static final int DELETED = -1;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${spring.security.jwt.version-cache-ms:30000}")
+    private long cacheMillis;
+
+    @Value("${spring.security.jwt.version-cache-size:100000}")
+    private int maxEntries;
+
+    private final Map<Long, CachedVersion> versions = new ConcurrentHashMap<>();
+
+    /** True if the user still exists and has not revoked tokens of this version. */
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        long now = System.currentTimeMillis();
+        CachedVersion cached = versions.get(userId);
+        if (cached == null || now - cached.loadedAt > cacheMillis) {
+            if (versions.size() >= maxEntries) {
+                versions.clear();
+            }
+            cached = new CachedVersion(userRepository.findTokenVersionById(userId).orElse(DELETED), now);
+            versions.put(userId, cached);
+        }
+        return cached.version != DELETED && cached.version == tokenVersion;
+    }
+
+    public void evict(Long userId) {
+        versions.remove(userId);
+    }
+
+    private static final class CachedVersion {
+        private final int version;
+        private final long loadedAt;
+
+        private CachedVersion(int version, long loadedAt) {
+            this.version = version;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
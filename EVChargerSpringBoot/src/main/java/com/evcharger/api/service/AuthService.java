@@ -4,6 +4,9 @@ import com.evcharger.api.dto.*;
 import com.evcharger.api.entity.User;
 import com.evcharger.api.repository.UserRepository;
 import com.evcharger.api.security.JwtUtils;
+import com.evcharger.api.security.RevokedTokens;
+import com.evcharger.api.security.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -34,16 +37,22 @@ public class AuthService {
     @Autowired
     JwtUtils jwtUtils;
 
+    @Autowired
+    UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    RevokedTokens revokedTokens;
+
     public Map<String, Object> authenticateUser(LoginDto loginRequest) {
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), loginRequest.getPassword()));
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = jwtUtils.generateJwtToken(authentication);
 
         Optional<User> userOpt = userRepository.findByEmail(loginRequest.getEmail());
         if (userOpt.isPresent()) {
             User user = userOpt.get();
+            String jwt = jwtUtils.generateTokenForUser(user);
             
             logger.info("User login - Email: {}, Role: {}", user.getEmail(), user.getRole());
 
@@ -79,7 +88,7 @@ public class AuthService {
         userRepository.save(user);
 
         // Generate JWT token without authentication for new users
-        String jwt = jwtUtils.generateTokenFromUsername(signUpRequest.getEmail());
+        String jwt = jwtUtils.generateTokenForUser(user);
 
         UserDto userDto = convertToUserDto(user);
         
@@ -110,7 +119,7 @@ public class AuthService {
         userRepository.save(user);
 
         // Generate JWT token without password authentication
-        String jwt = jwtUtils.generateTokenFromUsername(signUpRequest.getEmail());
+        String jwt = jwtUtils.generateTokenForUser(user);
 
         UserDto userDto = convertToUserDto(user);
         
@@ -138,9 +147,23 @@ public class AuthService {
         if (updateRequest.getVehicleModel() != null) user.setVehicleModel(updateRequest.getVehicleModel());
         
         userRepository.save(user);
+        userDetailsService.evict(email);
         return convertToUserDto(user);
     }
 
+    /** Revokes the token so it is rejected from now on, even though it has not expired. */
+    public void logout(String token) {
+        Claims claims = token != null ? jwtUtils.parseClaims(token) : null;
+        if (claims == null) {
+            throw new RuntimeException("Invalid or expired token");
+        }
+        if (claims.getId() == null) {
+            throw new RuntimeException("This token cannot be revoked; change your password to revoke it");
+        }
+        revokedTokens.revoke(claims.getId(), claims.get(JwtUtils.CLAIM_USER_ID, Long.class), claims.getExpiration());
+        logger.info("Revoked token {} of {}", claims.getId(), claims.getSubject());
+    }
+
     public Map<String, Object> authenticateUserByEmail(String email) {
         Optional<User> userOpt = userRepository.findByEmail(email);
         if (userOpt.isEmpty()) {
@@ -150,7 +173,7 @@ public class AuthService {
         User user = userOpt.get();
         
         // Create authentication token without password verification
-        String jwt = jwtUtils.generateTokenFromUsername(email);
+        String jwt = jwtUtils.generateTokenForUser(user);
         UserDto userDto = convertToUserDto(user);
         
         Map<String, Object> response = new HashMap<>();
@@ -178,7 +201,7 @@ public class AuthService {
         Authentication authentication = new UsernamePasswordAuthenticationToken(
                 email, null, null);
         
-        String jwt = jwtUtils.generateTokenFromUsername(email);
+        String jwt = jwtUtils.generateTokenForUser(user);
         UserDto userDto = convertToUserDto(user);
         
         Map<String, Object> response = new HashMap<>();
@@ -208,6 +231,7 @@ public class AuthService {
         }
         
         userRepository.save(user);
+        userDetailsService.evict(email);
         return convertToUserDto(user);
     }
     
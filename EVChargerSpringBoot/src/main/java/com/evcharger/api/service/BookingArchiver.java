@@ -0,0 +1,130 @@
+package com.evcharger.api.service;
+
+import com.evcharger.api.repository.ArchivedBookingRepository;
+import com.evcharger.api.repository.BookingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Moves Completed and Cancelled bookings older than the configured age from the Bookings table
+ * into ArchivedBookings, so the hot table and its indexes only grow with live bookings. Rows
+ * are moved in chunks, each copied and deleted in its own short transaction, so a run never
+ * holds locks on more than one chunk. A chunk is rolled back if any of its rows changed status
+ * between the copy and the delete.
+ */
+@Service
+public class BookingArchiver {
+    private static final Logger logger = LoggerFactory.getLogger(BookingArchiver.class);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ArchivedBookingRepository archivedBookingRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${bookings.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${bookings.archive.age-days:90}")
+    private long ageDays;
+
+    @Value("${bookings.archive.chunk-size:500}")
+    private int chunkSize;
+
+    private final ReentrantLock running = new ReentrantLock();
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong archived = new AtomicLong();
+    private final AtomicLong chunks = new AtomicLong();
+    private final AtomicLong failedChunks = new AtomicLong();
+    private volatile long lastRunMillis;
+
+    @Scheduled(initialDelayString = "${bookings.archive.initial-delay-ms:60000}",
+            fixedDelayString = "${bookings.archive.interval-ms:3600000}")
+    public void scheduledArchive() {
+        if (enabled) {
+            archive();
+        }
+    }
+
+    /** Archives every eligible booking now; returns how many were moved. */
+    public int archive() {
+        if (!running.tryLock()) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        int moved = 0;
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minusDays(ageDays);
+            List<Long> ids;
+            do {
+                ids = bookingRepository.findArchivableIds(cutoff, PageRequest.of(0, chunkSize));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                int chunk = moveChunk(ids);
+                if (chunk < 0) {
+                    // Skip this run rather than retrying the same chunk forever
+                    break;
+                }
+                moved += chunk;
+            } while (ids.size() == chunkSize);
+        } finally {
+            runs.incrementAndGet();
+            lastRunMillis = (System.nanoTime() - start) / 1_000_000;
+            running.unlock();
+        }
+        if (moved > 0) {
+            logger.info("Archived {} finished bookings older than {} days in {} ms", moved, ageDays, lastRunMillis);
+        }
+        return moved;
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("enabled", enabled);
+        metrics.put("ageDays", ageDays);
+        metrics.put("runs", runs.get());
+        metrics.put("archived", archived.get());
+        metrics.put("chunks", chunks.get());
+        metrics.put("failedChunks", failedChunks.get());
+        metrics.put("lastRunMillis", lastRunMillis);
+        return metrics;
+    }
+
+    private int moveChunk(List<Long> ids) {
+        try {
+            Integer moved = transactionTemplate.execute(status -> {
+                int copied = archivedBookingRepository.copyFinishedBookings(ids, LocalDateTime.now());
+                int deleted = bookingRepository.deleteFinishedBookings(ids);
+                if (copied != deleted) {
+                    throw new IllegalStateException("copied " + copied + " bookings but deleted " + deleted);
+                }
+                return deleted;
+            });
+            chunks.incrementAndGet();
+            archived.addAndGet(moved);
+            return moved;
+        } catch (DataAccessException | IllegalStateException e) {
+            failedChunks.incrementAndGet();
+            logger.warn("Archiving {} bookings failed, chunk rolled back: {}", ids.size(), e.getMessage());
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package com.evcharger.api.service;
+
+import com.evcharger.api.entity.Booking;
+import com.evcharger.api.entity.BookingEvent;
+import com.evcharger.api.repository.BookingRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Group commit for booking bursts. When enabled, booking requests are queued and a single
+ * writer thread drains the queue every few milliseconds, inserting everything it collected
+ * in one transaction so Hibernate can send the rows as one JDBC batch. Each caller waits on
+ * its own future and gets its own saved booking, or its own error: if a batch fails, its
+ * rows are retried one at a time so one bad row does not fail the others. Creation events go
+ * to the {@link BookingOutbox} in the same transaction as the rows. Station slot counts
+ * are not written here; the {@link SlotInventory} write-behind already sends one aggregated
+ * update per changed station. Callers wait at most {@code bookings.batch.wait-ms}; if the
+ * writer thread dies, queued callers are failed and later bookings are written directly.
+ */
+@Component
+public class BookingBatchWriter {
+    private static final Logger logger = LoggerFactory.getLogger(BookingBatchWriter.class);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingCalendar bookingCalendar;
+
+    @Autowired
+    private SlotInventory slotInventory;
+
+    @Autowired
+    private BookingOutbox bookingOutbox;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${bookings.batch.enabled:false}")
+    private boolean enabled;
+
+    @Value("${bookings.batch.interval-ms:5}")
+    private long intervalMillis;
+
+    @Value("${bookings.batch.max-size:100}")
+    private int maxSize;
+
+    @Value("${bookings.batch.queue-capacity:10000}")
+    private int queueCapacity;
+
+    // How long a caller waits for its row before giving up with an error
+    @Value("${bookings.batch.wait-ms:10000}")
+    private long waitMillis;
+
+    private BlockingQueue<PendingBooking> queue;
+    private Thread writer;
+    private volatile boolean running;
+
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong retriedBatches = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong largestBatch = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        writer = new Thread(this::run, "booking-batch-writer");
+        writer.setDaemon(true);
+        writer.start();
+        logger.info("Booking group commit enabled: every {} ms, up to {} bookings per batch", intervalMillis, maxSize);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        writer.interrupt();
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues the booking, whose window is already reserved, and waits until it is written.
+     * Returns the saved booking with the reservation bound to it, or empty if the queue is full
+     * or the writer has stopped and the caller should write the booking itself. On failure the
+     * reservation is given back.
+     */
+    public Optional<Booking> write(Booking booking, BookingCalendar.Reservation reservation) {
+        PendingBooking pending = new PendingBooking(booking, reservation);
+        if (!running || !queue.offer(pending)) {
+            rejected.incrementAndGet();
+            return Optional.empty();
+        }
+        // The writer may have died between the check and the offer; it would never see this row
+        if (!running && queue.remove(pending)) {
+            rejected.incrementAndGet();
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(pending.result.get(waitMillis, TimeUnit.MILLISECONDS));
+        } catch (TimeoutException e) {
+            // The writer still owns the row; it will be written or its reservation given back
+            timeouts.incrementAndGet();
+            throw new RuntimeException("Timed out waiting for booking to be saved, check your bookings before retrying");
+        } catch (InterruptedException e) {
+            // The writer still owns the row; it will be written or its reservation given back
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for booking to be saved");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("enabled", enabled);
+        metrics.put("running", running);
+        metrics.put("queued", queue != null ? queue.size() : 0);
+        metrics.put("batches", batches.get());
+        metrics.put("written", written.get());
+        metrics.put("failed", failed.get());
+        metrics.put("retriedBatches", retriedBatches.get());
+        metrics.put("rejected", rejected.get());
+        metrics.put("largestBatch", largestBatch.get());
+        metrics.put("timeouts", timeouts.get());
+        return metrics;
+    }
+
+    private void run() {
+        List<PendingBooking> batch = new ArrayList<>(maxSize);
+        try {
+            drainLoop(batch);
+        } catch (Throwable t) {
+            // Stop taking work, so callers fall back to direct writes instead of waiting on a dead writer
+            running = false;
+            logger.error("Booking batch writer stopped, bookings are written directly from now on", t);
+            // Rows of the batch in flight may have been committed, so their windows stay reserved
+            for (PendingBooking pending : batch) {
+                pending.result.completeExceptionally(
+                        new RuntimeException("Booking may not have been saved, check your bookings before retrying"));
+            }
+            List<PendingBooking> unwritten = new ArrayList<>();
+            queue.drainTo(unwritten);
+            for (PendingBooking pending : unwritten) {
+                bookingCalendar.cancel(pending.reservation);
+                pending.result.completeExceptionally(new RuntimeException("Booking writer failed, please retry"));
+            }
+            if (t instanceof Error error) {
+                throw error;
+            }
+        }
+    }
+
+    private void drainLoop(List<PendingBooking> batch) {
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingBooking first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // Let the rest of the burst arrive before committing
+                if (running && intervalMillis > 0) {
+                    TimeUnit.MILLISECONDS.sleep(intervalMillis);
+                }
+            } catch (InterruptedException e) {
+                if (batch.isEmpty()) {
+                    continue;
+                }
+            }
+            queue.drainTo(batch, maxSize - batch.size());
+            try {
+                writeBatch(batch);
+            } catch (RuntimeException e) {
+                // Keep the writer alive; no caller may be left waiting
+                logger.error("Booking batch writer failed: {}", e.getMessage(), e);
+                for (PendingBooking pending : batch) {
+                    pending.result.completeExceptionally(e);
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    private void writeBatch(List<PendingBooking> batch) {
+        List<Booking> bookings = new ArrayList<>(batch.size());
+        for (PendingBooking pending : batch) {
+            bookings.add(pending.booking);
+        }
+        List<Booking> saved;
+        try {
+            saved = transactionTemplate.execute(status -> {
+                List<Booking> inserted = bookingRepository.saveAll(bookings);
+                bookingOutbox.recordCreated(inserted);
+                return inserted;
+            });
+        } catch (RuntimeException e) {
+            logger.warn("Booking batch of {} failed, writing rows one at a time: {}", batch.size(), e.getMessage());
+            retriedBatches.incrementAndGet();
+            for (PendingBooking pending : batch) {
+                writeOne(pending);
+            }
+            return;
+        }
+        batches.incrementAndGet();
+        largestBatch.accumulateAndGet(batch.size(), Math::max);
+        for (int i = 0; i < batch.size(); i++) {
+            complete(batch.get(i), saved.get(i));
+        }
+    }
+
+    private void writeOne(PendingBooking pending) {
+        // An id handed out to the failed batch is discarded so the row is inserted, not merged
+        pending.booking.setId(null);
+        try {
+            complete(pending, transactionTemplate.execute(status -> {
+                Booking inserted = bookingRepository.save(pending.booking);
+                bookingOutbox.record(inserted, BookingEvent.CREATED, null);
+                return inserted;
+            }));
+        } catch (RuntimeException e) {
+            bookingCalendar.cancel(pending.reservation);
+            failed.incrementAndGet();
+            pending.result.completeExceptionally(e);
+        }
+    }
+
+    private void complete(PendingBooking pending, Booking saved) {
+        bookingCalendar.bind(saved.getId(), pending.reservation);
+        slotInventory.acquire(saved.getId(), saved.getStationId());
+        written.incrementAndGet();
+        pending.result.complete(saved);
+    }
+
+    private static final class PendingBooking {
+        private final Booking booking;
+        private final BookingCalendar.Reservation reservation;
+        private final CompletableFuture<Booking> result = new CompletableFuture<>();
+
+        private PendingBooking(Booking booking, BookingCalendar.Reservation reservation) {
+            this.booking = booking;
+            this.reservation = reservation;
+        }
+    }
+}
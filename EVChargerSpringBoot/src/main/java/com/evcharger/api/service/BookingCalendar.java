@@ -0,0 +1,193 @@
+package com.evcharger.api.service;
+
+import com.evcharger.api.entity.Booking;
+import com.evcharger.api.repository.BookingRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-station occupancy calendar used to admit bookings by time window. Each station keeps a
+ * step function in a sorted map: a key is an instant where the number of overlapping active
+ * bookings changes, and its value is that number until the next key. The peak occupancy of a
+ * window is the floor entry of its start plus the breakpoints inside it, so a capacity check
+ * costs O(log n + k) for k bookings touching the window instead of a scan over the station's
+ * bookings, and booking or releasing a window only rewrites the breakpoints it covers.
+ *
+ * A station's calendar is loaded from its active bookings the first time it is needed and then
+ * kept current by {@link BookingService}; reservations are keyed by booking id so releasing a
+ * booking twice is harmless.
+ */
+@Component
+public class BookingCalendar {
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private final Map<Long, Occupancy> stations = new ConcurrentHashMap<>();
+    private final Map<Long, Reservation> reservations = new ConcurrentHashMap<>();
+
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong admitted = new AtomicLong();
+    private final AtomicLong conflicts = new AtomicLong();
+
+    /**
+     * Books the window at the station if fewer than {@code capacity} active bookings overlap
+     * it at any instant, otherwise throws. The returned reservation is bound to the booking id
+     * once the booking has been saved.
+     */
+    public Reservation reserve(Long stationId, LocalDateTime start, LocalDateTime end, int capacity) {
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new RuntimeException("Booking end time must be after its start time");
+        }
+        Occupancy occupancy = occupancy(stationId);
+        synchronized (occupancy) {
+            if (occupancy.peak(start, end) >= capacity) {
+                conflicts.incrementAndGet();
+                throw new RuntimeException("No slots available at this station for the requested time");
+            }
+            occupancy.add(start, end, 1);
+        }
+        admitted.incrementAndGet();
+        return new Reservation(stationId, start, end);
+    }
+
+    public void bind(Long bookingId, Reservation reservation) {
+        reservations.put(bookingId, reservation);
+    }
+
+    public boolean isHeld(Long bookingId) {
+        return reservations.containsKey(bookingId);
+    }
+
+    /** Gives back a window that was never bound to a booking, e.g. when saving the booking failed. */
+    public void cancel(Reservation reservation) {
+        Occupancy occupancy = stations.get(reservation.stationId);
+        if (occupancy != null) {
+            synchronized (occupancy) {
+                occupancy.add(reservation.start, reservation.end, -1);
+            }
+        }
+    }
+
+    /** Gives back the booking's window; a no-op if it holds none. */
+    public void release(Long bookingId) {
+        Reservation reservation = reservations.remove(bookingId);
+        if (reservation != null) {
+            cancel(reservation);
+        }
+    }
+
+    /** Highest number of active bookings overlapping any instant of the window. */
+    public int peakOccupancy(Long stationId, LocalDateTime start, LocalDateTime end) {
+        Occupancy occupancy = occupancy(stationId);
+        synchronized (occupancy) {
+            return occupancy.peak(start, end);
+        }
+    }
+
+    /** Peak occupancy of each window [starts[i], ends[i]), read under a single lock. */
+    public int[] peakOccupancy(Long stationId, LocalDateTime[] starts, LocalDateTime[] ends) {
+        int[] peaks = new int[starts.length];
+        Occupancy occupancy = occupancy(stationId);
+        synchronized (occupancy) {
+            for (int i = 0; i < starts.length; i++) {
+                peaks[i] = occupancy.peak(starts[i], ends[i]);
+            }
+        }
+        return peaks;
+    }
+
+    public void removeStation(Long stationId) {
+        stations.remove(stationId);
+        reservations.values().removeIf(reservation -> reservation.stationId.equals(stationId));
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("loadedStations", stations.size());
+        metrics.put("heldReservations", reservations.size());
+        metrics.put("loads", loads.get());
+        metrics.put("admitted", admitted.get());
+        metrics.put("conflicts", conflicts.get());
+        return metrics;
+    }
+
+    private Occupancy occupancy(Long stationId) {
+        return stations.computeIfAbsent(stationId, this::load);
+    }
+
+    private Occupancy load(Long stationId) {
+        Occupancy occupancy = new Occupancy();
+        for (Booking booking : bookingRepository.findByStationId(stationId)) {
+            if (BookingService.isActive(booking.getStatus()) && booking.getStartTime() != null
+                    && booking.getEndTime() != null && booking.getStartTime().isBefore(booking.getEndTime())) {
+                occupancy.add(booking.getStartTime(), booking.getEndTime(), 1);
+                reservations.put(booking.getId(), new Reservation(stationId, booking.getStartTime(), booking.getEndTime()));
+            }
+        }
+        loads.incrementAndGet();
+        return occupancy;
+    }
+
+    public static final class Reservation {
+        private final Long stationId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+
+        private Reservation(Long stationId, LocalDateTime start, LocalDateTime end) {
+            this.stationId = stationId;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    // Step function of overlapping bookings; no key means zero, and adjacent equal steps are merged
+    private static final class Occupancy {
+        private final TreeMap<LocalDateTime, Integer> steps = new TreeMap<>();
+
+        private int peak(LocalDateTime start, LocalDateTime end) {
+            Map.Entry<LocalDateTime, Integer> floor = steps.floorEntry(start);
+            int peak = floor != null ? floor.getValue() : 0;
+            for (int level : steps.subMap(start, false, end, false).values()) {
+                peak = Math.max(peak, level);
+            }
+            return peak;
+        }
+
+        private void add(LocalDateTime start, LocalDateTime end, int delta) {
+            split(start);
+            split(end);
+            for (Map.Entry<LocalDateTime, Integer> step : steps.subMap(start, true, end, false).entrySet()) {
+                step.setValue(Math.max(0, step.getValue() + delta));
+            }
+            LocalDateTime from = steps.lowerKey(start);
+            NavigableMap<LocalDateTime, Integer> touched = steps.subMap(from != null ? from : start, true, end, true);
+            int previous = 0;
+            boolean compare = from == null;
+            for (Iterator<Integer> it = touched.values().iterator(); it.hasNext(); ) {
+                int level = it.next();
+                if (compare && level == previous) {
+                    it.remove();
+                } else {
+                    previous = level;
+                }
+                compare = true;
+            }
+        }
+
+        private void split(LocalDateTime at) {
+            if (!steps.containsKey(at)) {
+                Map.Entry<LocalDateTime, Integer> floor = steps.floorEntry(at);
+                steps.put(at, floor != null ? floor.getValue() : 0);
+            }
+        }
+    }
+}
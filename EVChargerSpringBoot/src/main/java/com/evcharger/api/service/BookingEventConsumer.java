@@ -0,0 +1,15 @@
+package com.evcharger.api.service;
+
+import com.evcharger.api.entity.BookingEvent;
+
+/**
+ * Receives booking state changes from the {@link BookingOutbox} dispatcher, off the request
+ * thread and after the change has committed. Every bean implementing this is called for every
+ * event. Delivery is tracked per consumer: if a consumer throws, only the consumers that have
+ * not yet handled the event get it again on a later poll. Delivery is still at least once, since
+ * the dispatcher may stop between a consumer returning and the event being saved, so consumers
+ * should tolerate the occasional repeat.
+ */
+public interface BookingEventConsumer {
+    void onEvent(BookingEvent event);
+}
@@ -0,0 +1,34 @@
+package com.evcharger.api.service;
+
+import com.evcharger.api.entity.BookingEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/** Counts dispatched booking events by type and by new status, for the admin metrics endpoint. */
+@Component
+public class BookingEventCounters implements BookingEventConsumer {
+    private final Map<String, LongAdder> byType = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> byStatus = new ConcurrentHashMap<>();
+
+    @Override
+    public void onEvent(BookingEvent event) {
+        byType.computeIfAbsent(event.getEventType(), type -> new LongAdder()).increment();
+        if (event.getNewStatus() != null) {
+            byStatus.computeIfAbsent(event.getNewStatus(), status -> new LongAdder()).increment();
+        }
+    }
+
+    public Map<String, Object> getMetrics() {
+        return Map.of("byType", snapshot(byType), "byNewStatus", snapshot(byStatus));
+    }
+
+    private static Map<String, Long> snapshot(Map<String, LongAdder> counters) {
+        Map<String, Long> snapshot = new TreeMap<>();
+        counters.forEach((key, count) -> snapshot.put(key, count.sum()));
+        return snapshot;
+    }
+}
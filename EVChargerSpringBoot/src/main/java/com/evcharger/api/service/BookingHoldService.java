@@ -0,0 +1,238 @@
+package com.evcharger.api.service;
+
+import com.evcharger.api.dto.BookingDto;
+import com.evcharger.api.dto.BookingHoldDto;
+import com.evcharger.api.dto.CreateBookingDto;
+import com.evcharger.api.dto.CreateBookingHoldDto;
+import com.evcharger.api.repository.BookingRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Short-lived slot holds taken before payment. A hold reserves its window in the
+ * {@link BookingCalendar} and counts against the station's available slots like a booking;
+ * on payment verify it is converted into a booking that inherits the reservation. Holds live
+ * only in memory and expire on a {@link HashedTimingWheel}, so creating and expiring one is
+ * O(1) and no database sweep is needed.
+ */
+@Service
+public class BookingHoldService {
+    private static final Logger logger = LoggerFactory.getLogger(BookingHoldService.class);
+
+    @Autowired
+    private BookingCalendar bookingCalendar;
+
+    @Autowired
+    private SlotInventory slotInventory;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Value("${bookings.holds.ttl-minutes:10}")
+    private long ttlMinutes;
+
+    @Value("${bookings.holds.payment-ttl-minutes:30}")
+    private long paymentTtlMinutes;
+
+    @Value("${bookings.holds.tick-ms:1000}")
+    private long tickMillis;
+
+    @Value("${bookings.holds.wheel-size:512}")
+    private int wheelSize;
+
+    private final Map<String, Hold> holds = new ConcurrentHashMap<>();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong converted = new AtomicLong();
+    private final AtomicLong released = new AtomicLong();
+    private HashedTimingWheel timingWheel;
+
+    @PostConstruct
+    public void start() {
+        timingWheel = new HashedTimingWheel("booking-hold-expiry", tickMillis, TimeUnit.MILLISECONDS, wheelSize);
+    }
+
+    @PreDestroy
+    public void stop() {
+        timingWheel.stop();
+    }
+
+    public BookingHoldDto createHold(Long userId, CreateBookingHoldDto holdDto) {
+        Integer totalSlots = slotInventory.getTotalSlots(holdDto.getStationId());
+        if (totalSlots == null) {
+            throw new RuntimeException("Station not found");
+        }
+        BookingCalendar.Reservation reservation = bookingCalendar.reserve(
+                holdDto.getStationId(), holdDto.getStartTime(), holdDto.getEndTime(), totalSlots);
+
+        Hold hold = new Hold(UUID.randomUUID().toString(), userId, holdDto, reservation,
+                LocalDateTime.now().plusMinutes(ttlMinutes));
+        slotInventory.acquireHold(hold.id, hold.stationId);
+        hold.timeout = timingWheel.schedule(() -> expire(hold.id), ttlMinutes, TimeUnit.MINUTES);
+        holds.put(hold.id, hold);
+        created.incrementAndGet();
+        logger.info("Hold {} created for user {} at station {}", hold.id, userId, hold.stationId);
+        return convertToDto(hold);
+    }
+
+    /** Releases the caller's hold before it expires. */
+    public void releaseHold(Long userId, String holdId) {
+        Hold hold = take(userId, holdId);
+        hold.timeout.cancel();
+        giveBack(hold);
+        released.incrementAndGet();
+    }
+
+    /**
+     * Turns the caller's hold into a booking for the held station and window, once the order it
+     * was pinned to has been paid; the remaining booking details come from {@code details}. A
+     * hold pinned to another order, or an amount other than the one it was pinned with, is refused.
+     */
+    public BookingDto convertHold(Long userId, String holdId, String orderId, Integer amountInPaise,
+                                  CreateBookingDto details) {
+        Hold hold = holds.get(holdId);
+        if (hold == null || !hold.userId.equals(userId)) {
+            throw new RuntimeException("Hold not found or expired");
+        }
+        synchronized (hold) {
+            if (hold.orderId == null || !hold.orderId.equals(orderId) || !hold.orderAmount.equals(amountInPaise)) {
+                throw new RuntimeException("Hold was not reserved for this payment order");
+            }
+            take(userId, holdId);
+        }
+        hold.timeout.cancel();
+        details.setStationId(hold.stationId);
+        details.setStartTime(hold.startTime);
+        details.setEndTime(hold.endTime);
+        try {
+            BookingDto booking = bookingService.createBookingFromHold(userId, details, hold.reservation);
+            converted.incrementAndGet();
+            return booking;
+        } finally {
+            // The booking now holds the slot, or it failed and the calendar window was given back
+            slotInventory.releaseHold(hold.id);
+        }
+    }
+
+    /** Fails unless the hold exists and belongs to the user. */
+    public void checkHold(Long userId, String holdId) {
+        Hold hold = holds.get(holdId);
+        if (hold == null || !hold.userId.equals(userId)) {
+            throw new RuntimeException("Hold not found or expired");
+        }
+    }
+
+    /** True once a booking was made with this payment, so its order cannot be converted again. */
+    public boolean isPaymentBooked(String paymentId) {
+        return bookingRepository.existsByPaymentId(paymentId);
+    }
+
+    /**
+     * Ties the caller's hold to the payment order just created for it and extends the hold to the
+     * payment window, so a payment started before the hold expired still finds its slot at verify.
+     * Only that order can convert the hold; a later order for the same hold replaces it. Fails if
+     * the hold is gone.
+     */
+    public BookingHoldDto pinHold(Long userId, String holdId, String orderId, Integer amountInPaise) {
+        Hold hold = holds.get(holdId);
+        if (hold == null || !hold.userId.equals(userId)) {
+            throw new RuntimeException("Hold not found or expired");
+        }
+        synchronized (hold) {
+            // Losing to the expiry timer means the hold is already being given back
+            if (!hold.timeout.cancel()) {
+                throw new RuntimeException("Hold not found or expired");
+            }
+            hold.orderId = orderId;
+            hold.orderAmount = amountInPaise;
+            hold.expiresAt = LocalDateTime.now().plusMinutes(paymentTtlMinutes);
+            // If the hold is converted or released meanwhile, this timer finds nothing to expire
+            hold.timeout = timingWheel.schedule(() -> expire(hold.id), paymentTtlMinutes, TimeUnit.MINUTES);
+        }
+        return convertToDto(hold);
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("activeHolds", holds.size());
+        metrics.put("created", created.get());
+        metrics.put("converted", converted.get());
+        metrics.put("released", released.get());
+        metrics.put("expired", timingWheel.expiredCount());
+        metrics.put("pendingTimeouts", timingWheel.outstandingCount());
+        return metrics;
+    }
+
+    // Whoever removes a hold from the map owns it, so expiry and release or conversion never both run
+    private Hold take(Long userId, String holdId) {
+        Hold hold = holds.get(holdId);
+        if (hold == null || !hold.userId.equals(userId) || !holds.remove(holdId, hold)) {
+            throw new RuntimeException("Hold not found or expired");
+        }
+        return hold;
+    }
+
+    // Runs on the timing wheel thread
+    private void expire(String holdId) {
+        Hold hold = holds.remove(holdId);
+        if (hold != null) {
+            giveBack(hold);
+            logger.info("Hold {} at station {} expired", hold.id, hold.stationId);
+        }
+    }
+
+    private void giveBack(Hold hold) {
+        bookingCalendar.cancel(hold.reservation);
+        slotInventory.releaseHold(hold.id);
+    }
+
+    private BookingHoldDto convertToDto(Hold hold) {
+        BookingHoldDto dto = new BookingHoldDto();
+        dto.setId(hold.id);
+        dto.setStationId(hold.stationId);
+        dto.setStartTime(hold.startTime);
+        dto.setEndTime(hold.endTime);
+        dto.setExpiresAt(hold.expiresAt);
+        return dto;
+    }
+
+    private static final class Hold {
+        private final String id;
+        private final Long userId;
+        private final Long stationId;
+        private final LocalDateTime startTime;
+        private final LocalDateTime endTime;
+        private final BookingCalendar.Reservation reservation;
+        private volatile LocalDateTime expiresAt;
+        private volatile HashedTimingWheel.Timeout timeout;
+        // The Razorpay order and amount in paise that may pay for the hold; set by pinHold
+        private volatile String orderId;
+        private volatile Integer orderAmount;
+
+        private Hold(String id, Long userId, CreateBookingHoldDto holdDto,
+                     BookingCalendar.Reservation reservation, LocalDateTime expiresAt) {
+            this.id = id;
+            this.userId = userId;
+            this.stationId = holdDto.getStationId();
+            this.startTime = holdDto.getStartTime();
+            this.endTime = holdDto.getEndTime();
+            this.reservation = reservation;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
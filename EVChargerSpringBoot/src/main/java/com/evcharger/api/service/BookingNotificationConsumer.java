@@ -0,0 +1,71 @@
+package com.evcharger.api.service;
+
+import com.evcharger.api.entity.BookingEvent;
+import com.evcharger.api.entity.Station;
+import com.evcharger.api.entity.User;
+import com.evcharger.api.repository.StationRepository;
+import com.evcharger.api.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Emails the user when their booking is confirmed or cancelled. Off by default; a mail failure
+ * is logged rather than retried so the user is never mailed twice for the same change.
+ */
+@Component
+public class BookingNotificationConsumer implements BookingEventConsumer {
+    private static final Logger logger = LoggerFactory.getLogger(BookingNotificationConsumer.class);
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StationRepository stationRepository;
+
+    @Value("${bookings.events.notifications.enabled:false}")
+    private boolean enabled;
+
+    @Override
+    public void onEvent(BookingEvent event) {
+        if (!enabled || event.getUserId() == null) {
+            return;
+        }
+        String subject;
+        if (BookingEvent.CREATED.equals(event.getEventType())) {
+            subject = "EV Charger - Booking confirmed";
+        } else if (BookingEvent.CANCELLED.equals(event.getEventType())) {
+            subject = "EV Charger - Booking cancelled";
+        } else {
+            return;
+        }
+        Optional<User> user = userRepository.findById(event.getUserId());
+        if (user.isEmpty()) {
+            return;
+        }
+        String stationName = stationRepository.findById(event.getStationId() != null ? event.getStationId() : -1L)
+                .map(Station::getName)
+                .orElse("your station");
+
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo(user.get().getEmail());
+        message.setSubject(subject);
+        message.setText("Hi " + user.get().getName() + ",\n\nYour booking #" + event.getBookingId() + " at "
+                + stationName + " is now " + event.getNewStatus() + ".");
+        try {
+            mailSender.send(message);
+        } catch (MailException e) {
+            logger.warn("Could not send booking {} notification: {}", event.getBookingId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.evcharger.api.service;
+
+import com.evcharger.api.entity.Booking;
+import com.evcharger.api.entity.BookingEvent;
+import com.evcharger.api.repository.BookingEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.ClassUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Transactional outbox for booking state changes. Each change writes a {@link BookingEvent}
+ * row in the same transaction as the booking itself, so an event exists exactly when the
+ * change committed. A scheduled dispatcher polls unprocessed events in id order, in batches,
+ * hands each one to every {@link BookingEventConsumer} and marks it processed. Each event
+ * records which consumers have handled it, so a failing consumer is retried alone, with
+ * exponential backoff, and does not make the others see the event twice. Downstream work
+ * therefore runs off the request path, and new consumers only need to be beans.
+ */
+@Service
+public class BookingOutbox {
+    private static final Logger logger = LoggerFactory.getLogger(BookingOutbox.class);
+
+    @Autowired
+    private BookingEventRepository bookingEventRepository;
+
+    @Autowired
+    private List<BookingEventConsumer> consumers;
+
+    @Value("${bookings.events.batch-size:200}")
+    private int batchSize;
+
+    @Value("${bookings.events.max-attempts:5}")
+    private int maxAttempts;
+
+    // Delay before the first retry; doubled after each further failure, up to the maximum
+    @Value("${bookings.events.retry-backoff-ms:5000}")
+    private long retryBackoffMillis;
+
+    @Value("${bookings.events.max-retry-backoff-ms:600000}")
+    private long maxRetryBackoffMillis;
+
+    @Value("${bookings.events.retention-hours:168}")
+    private long retentionHours;
+
+    private final AtomicLong dispatched = new AtomicLong();
+    private final AtomicLong failedDeliveries = new AtomicLong();
+    private final AtomicLong abandoned = new AtomicLong();
+    private final AtomicLong polls = new AtomicLong();
+    private volatile long lastLagMillis;
+
+    /** Writes the event for a booking change; must run inside the transaction making the change. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Booking booking, String eventType, String oldStatus) {
+        bookingEventRepository.save(new BookingEvent(booking, eventType, oldStatus));
+    }
+
+    /** Writes a creation event for each booking, inside the transaction that inserted them. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCreated(List<Booking> bookings) {
+        List<BookingEvent> events = new ArrayList<>(bookings.size());
+        for (Booking booking : bookings) {
+            events.add(new BookingEvent(booking, BookingEvent.CREATED, null));
+        }
+        bookingEventRepository.saveAll(events);
+    }
+
+    @Scheduled(fixedDelayString = "${bookings.events.poll-interval-ms:500}")
+    public void dispatch() {
+        polls.incrementAndGet();
+        long afterId = 0;
+        List<BookingEvent> batch;
+        do {
+            try {
+                batch = bookingEventRepository.findPendingAfter(afterId, LocalDateTime.now(), PageRequest.of(0, batchSize));
+            } catch (DataAccessException e) {
+                logger.warn("Could not poll booking events: {}", e.getMessage());
+                return;
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            for (BookingEvent event : batch) {
+                deliver(event);
+            }
+            // Delivered events are saved even if a later batch fails, so they are not delivered twice
+            bookingEventRepository.saveAll(batch);
+            afterId = batch.get(batch.size() - 1).getId();
+        } while (batch.size() == batchSize);
+    }
+
+    @Scheduled(fixedDelayString = "${bookings.events.cleanup-interval-ms:3600000}")
+    @Transactional
+    public void purgeProcessed() {
+        int deleted = bookingEventRepository.deleteProcessedBefore(LocalDateTime.now().minusHours(retentionHours));
+        if (deleted > 0) {
+            logger.info("Purged {} processed booking events", deleted);
+        }
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("consumers", consumers.size());
+        try {
+            metrics.put("pending", bookingEventRepository.countByProcessedAtIsNull());
+        } catch (DataAccessException e) {
+            metrics.put("pending", -1);
+        }
+        metrics.put("dispatched", dispatched.get());
+        metrics.put("failedDeliveries", failedDeliveries.get());
+        metrics.put("abandoned", abandoned.get());
+        metrics.put("polls", polls.get());
+        metrics.put("lastLagMillis", lastLagMillis);
+        return metrics;
+    }
+
+    private void deliver(BookingEvent event) {
+        Set<String> delivered = new LinkedHashSet<>();
+        if (event.getDeliveredTo() != null && !event.getDeliveredTo().isEmpty()) {
+            delivered.addAll(Arrays.asList(event.getDeliveredTo().split(",")));
+        }
+        String error = null;
+        for (BookingEventConsumer consumer : consumers) {
+            String name = ClassUtils.getUserClass(consumer).getSimpleName();
+            if (delivered.contains(name)) {
+                continue;
+            }
+            try {
+                consumer.onEvent(event);
+                delivered.add(name);
+            } catch (RuntimeException e) {
+                error = name + ": " + e.getMessage();
+                logger.warn("Booking event {} failed in {}", event.getId(), error);
+            }
+        }
+        event.setDeliveredTo(String.join(",", delivered));
+        LocalDateTime now = LocalDateTime.now();
+        if (error == null) {
+            event.setProcessedAt(now);
+            dispatched.incrementAndGet();
+            if (event.getCreatedAt() != null) {
+                lastLagMillis = Duration.between(event.getCreatedAt(), now).toMillis();
+            }
+            return;
+        }
+        failedDeliveries.incrementAndGet();
+        int attempts = (event.getAttempts() != null ? event.getAttempts() : 0) + 1;
+        event.setAttempts(attempts);
+        event.setLastError(error.length() > 500 ? error.substring(0, 500) : error);
+        if (attempts >= maxAttempts) {
+            event.setProcessedAt(now);
+            abandoned.incrementAndGet();
+            logger.error("Booking event {} abandoned after {} attempts: {}", event.getId(), attempts, error);
+            return;
+        }
+        // Exponential backoff, so a short outage of a consumer's dependency does not use up the attempts
+        long backoff = retryBackoffMillis << Math.min(attempts - 1, 20);
+        event.setNextAttemptAt(now.plusNanos(Math.min(backoff, maxRetryBackoffMillis) * 1_000_000));
+    }
+}
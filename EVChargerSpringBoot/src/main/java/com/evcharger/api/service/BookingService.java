@@ -4,18 +4,25 @@ import com.evcharger.api.dto.AdminCancelBookingDto;
 import com.evcharger.api.dto.BookingDto;
 import com.evcharger.api.dto.CreateBookingDto;
 import com.evcharger.api.entity.Booking;
+import com.evcharger.api.entity.BookingEvent;
 import com.evcharger.api.entity.Station;
+import com.evcharger.api.repository.ArchivedBookingRepository;
 import com.evcharger.api.repository.BookingRepository;
 import com.evcharger.api.repository.StationRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 public class BookingService {
@@ -24,20 +31,81 @@ public class BookingService {
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private ArchivedBookingRepository archivedBookingRepository;
+
     @Autowired
     private StationRepository stationRepository;
 
-    @Transactional
+    @Autowired
+    private SlotInventory slotInventory;
+
+    @Autowired
+    private BookingCalendar bookingCalendar;
+
+    @Autowired
+    private BookingBatchWriter bookingBatchWriter;
+
+    @Autowired
+    private BookingOutbox bookingOutbox;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Not transactional itself: with group commit enabled the caller only waits for the batch writer
     public BookingDto createBooking(Long userId, CreateBookingDto createBookingDto) {
         logger.info("Creating booking for user {} with data: {}", userId, createBookingDto);
         
-        Optional<Station> stationOpt = stationRepository.findById(createBookingDto.getStationId());
-        if (stationOpt.isEmpty()) {
+        // Slot counts live in the inventory, so booking never reads or locks the station row
+        Integer totalSlots = slotInventory.getTotalSlots(createBookingDto.getStationId());
+        if (totalSlots == null) {
             throw new RuntimeException("Station not found");
         }
+        BookingCalendar.Reservation reservation = bookingCalendar.reserve(
+                createBookingDto.getStationId(), createBookingDto.getStartTime(), createBookingDto.getEndTime(), totalSlots);
 
-        Station station = stationOpt.get();
-        
+        if (bookingBatchWriter.isEnabled()) {
+            Optional<Booking> batched = bookingBatchWriter.write(buildBooking(userId, createBookingDto), reservation);
+            if (batched.isPresent()) {
+                logger.info("Booking created successfully with ID: {}", batched.get().getId());
+                return convertToDto(batched.get());
+            }
+            logger.warn("Booking batch queue full, writing booking directly");
+        }
+        return transactionTemplate.execute(status -> saveBooking(userId, createBookingDto, reservation));
+    }
+
+    /**
+     * Creates the booking for a window already reserved in the calendar by a booking hold;
+     * the reservation passes to the booking, or is given back if the booking is not saved.
+     */
+    @Transactional
+    public BookingDto createBookingFromHold(Long userId, CreateBookingDto createBookingDto,
+                                           BookingCalendar.Reservation reservation) {
+        logger.info("Creating booking from hold for user {} with data: {}", userId, createBookingDto);
+        return saveBooking(userId, createBookingDto, reservation);
+    }
+
+    private BookingDto saveBooking(Long userId, CreateBookingDto createBookingDto, BookingCalendar.Reservation reservation) {
+        Booking booking = buildBooking(userId, createBookingDto);
+
+        Booking savedBooking;
+        try {
+            savedBooking = bookingRepository.save(booking);
+        } catch (RuntimeException e) {
+            bookingCalendar.cancel(reservation);
+            throw e;
+        }
+        bookingCalendar.bind(savedBooking.getId(), reservation);
+        slotInventory.acquire(savedBooking.getId(), savedBooking.getStationId());
+        afterRollback(() -> releaseSlot(savedBooking.getId()));
+        bookingOutbox.record(savedBooking, BookingEvent.CREATED, null);
+        logger.info("Booking created successfully with ID: {}", savedBooking.getId());
+
+        return convertToDto(savedBooking);
+    }
+
+    private Booking buildBooking(Long userId, CreateBookingDto createBookingDto) {
         Booking booking = new Booking();
         booking.setUserId(userId);
         booking.setStationId(createBookingDto.getStationId());
@@ -54,42 +122,80 @@ public class BookingService {
         booking.setVehicleModel(createBookingDto.getVehicleModel() != null ? createBookingDto.getVehicleModel() : "");
         booking.setVehicleNumber(createBookingDto.getVehicleNumber() != null ? createBookingDto.getVehicleNumber() : "");
         booking.setPaymentId(createBookingDto.getPaymentId() != null ? createBookingDto.getPaymentId() : "");
-
-        // Update station available slots
-        if (station.getAvailableSlots() > 0) {
-            station.setAvailableSlots(station.getAvailableSlots() - 1);
-            stationRepository.save(station);
-        }
-
-        Booking savedBooking = bookingRepository.save(booking);
-        logger.info("Booking created successfully with ID: {}", savedBooking.getId());
-
-        return convertToDto(savedBooking);
+        return booking;
     }
 
+    // Booking lists are read as DTO projections: no entities are hydrated or tracked for dirty checking
+    @Transactional(readOnly = true)
     public List<BookingDto> getUserBookings(Long userId) {
         logger.info("Getting bookings for user ID: {}", userId);
         
-        List<Booking> bookings = bookingRepository.findByUserIdWithStation(userId);
+        List<BookingDto> bookings = bookingRepository.findBookingDtosByUserId(userId);
         logger.info("Found {} bookings for user {}", bookings.size(), userId);
         
         // Log each booking status
-        for (Booking booking : bookings) {
+        for (BookingDto booking : bookings) {
             logger.info("Booking ID: {}, Status: {}, Station: {}", 
                        booking.getId(), booking.getStatus(), 
-                       booking.getStation() != null ? booking.getStation().getName() : "Unknown");
+                       booking.getStationName() != null ? booking.getStationName() : "Unknown");
         }
         
-        return bookings.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        // History reads both sides; finished bookings move to the archive after a while
+        bookings.addAll(archivedBookingRepository.findBookingDtosByUserId(userId));
+        return bookings;
     }
 
     public List<BookingDto> getAllBookings() {
-        List<Booking> bookings = bookingRepository.findAllWithStationAndUser();
-        return bookings.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return getAllBookings(false);
+    }
+
+    /** Bookings in the hot table, plus archived finished bookings if asked for. */
+    @Transactional(readOnly = true)
+    public List<BookingDto> getAllBookings(boolean includeArchived) {
+        List<BookingDto> bookings = bookingRepository.findAllBookingDtos();
+        if (includeArchived) {
+            bookings.addAll(archivedBookingRepository.findAllBookingDtos());
+        }
+        return bookings;
+    }
+
+    /**
+     * Up to {@code count} of the user's bookings, hot and archived, with ids below
+     * {@code beforeId} (null for the first page), newest first.
+     */
+    @Transactional(readOnly = true)
+    public List<BookingDto> getUserBookingsBefore(Long userId, Long beforeId, int count) {
+        long before = beforeId != null ? beforeId : Long.MAX_VALUE;
+        Pageable window = PageRequest.of(0, count);
+        return newestFirst(bookingRepository.findBookingDtosByUserIdBefore(userId, before, window),
+                archivedBookingRepository.findBookingDtosByUserIdBefore(userId, before, window), count);
+    }
+
+    /** Like {@link #getUserBookingsBefore} for all users; archived bookings only if asked for. */
+    @Transactional(readOnly = true)
+    public List<BookingDto> getAllBookingsBefore(boolean includeArchived, Long beforeId, int count) {
+        long before = beforeId != null ? beforeId : Long.MAX_VALUE;
+        Pageable window = PageRequest.of(0, count);
+        List<BookingDto> hot = bookingRepository.findBookingDtosBefore(before, window);
+        if (!includeArchived) {
+            return hot;
+        }
+        return newestFirst(hot, archivedBookingRepository.findBookingDtosBefore(before, window), count);
+    }
+
+    // Merges two id-descending pages; archived rows keep their ids, so the two never collide
+    private static List<BookingDto> newestFirst(List<BookingDto> first, List<BookingDto> second, int count) {
+        List<BookingDto> merged = new ArrayList<>(Math.min(count, first.size() + second.size()));
+        int i = 0;
+        int j = 0;
+        while (merged.size() < count && (i < first.size() || j < second.size())) {
+            if (j >= second.size() || (i < first.size() && first.get(i).getId() > second.get(j).getId())) {
+                merged.add(first.get(i++));
+            } else {
+                merged.add(second.get(j++));
+            }
+        }
+        return merged;
     }
 
     @Transactional
@@ -111,18 +217,14 @@ public class BookingService {
             throw new RuntimeException("Booking is already cancelled");
         }
 
+        String oldStatus = booking.getStatus();
         booking.setStatus("Cancelled");
         booking.setCancellationMessage("Cancelled by user");
 
-        // Update station available slots
-        Optional<Station> stationOpt = stationRepository.findById(booking.getStationId());
-        if (stationOpt.isPresent()) {
-            Station station = stationOpt.get();
-            station.setAvailableSlots(station.getAvailableSlots() + 1);
-            stationRepository.save(station);
-        }
+        afterCommit(() -> releaseSlot(booking.getId()));
 
         bookingRepository.save(booking);
+        bookingOutbox.record(booking, BookingEvent.CANCELLED, oldStatus);
         logger.info("Booking {} cancelled by user {}", bookingId, userId);
     }
 
@@ -134,20 +236,17 @@ public class BookingService {
         }
 
         Booking booking = bookingOpt.get();
+        String oldStatus = booking.getStatus();
         booking.setStatus("Cancelled");
         booking.setCancellationMessage(cancelDto.getMessage());
 
-        // Update station available slots
-        Optional<Station> stationOpt = stationRepository.findById(booking.getStationId());
-        if (stationOpt.isPresent()) {
-            Station station = stationOpt.get();
-            station.setAvailableSlots(station.getAvailableSlots() + 1);
-            stationRepository.save(station);
-        }
+        afterCommit(() -> releaseSlot(booking.getId()));
 
         bookingRepository.save(booking);
+        bookingOutbox.record(booking, BookingEvent.CANCELLED, oldStatus);
     }
 
+    @Transactional(readOnly = true)
     public List<BookingDto> getBookingsForStationMaster(Long stationId, Long stationMasterId) {
         // Verify station belongs to station master
         Optional<Station> stationOpt = stationRepository.findById(stationId);
@@ -160,10 +259,9 @@ public class BookingService {
             throw new RuntimeException("Unauthorized: Station does not belong to this station master");
         }
         
-        List<Booking> bookings = bookingRepository.findByStationIdWithUser(stationId);
-        return bookings.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        List<BookingDto> bookings = bookingRepository.findBookingDtosByStationId(stationId);
+        bookings.addAll(archivedBookingRepository.findBookingDtosByStationId(stationId));
+        return bookings;
     }
 
     @Transactional
@@ -179,8 +277,23 @@ public class BookingService {
         Booking booking = bookingOpt.get();
         String oldStatus = booking.getStatus();
         booking.setStatus(status);
+
+        // Rejected or completed bookings give their slot back; re-confirming one takes a slot again
+        if (!isActive(status)) {
+            afterCommit(() -> releaseSlot(bookingId));
+        } else if (!isActive(oldStatus)) {
+            Integer totalSlots = slotInventory.getTotalSlots(booking.getStationId());
+            if (totalSlots == null) {
+                throw new RuntimeException("Station not found");
+            }
+            bookingCalendar.bind(bookingId, bookingCalendar.reserve(
+                    booking.getStationId(), booking.getStartTime(), booking.getEndTime(), totalSlots));
+            slotInventory.acquire(bookingId, booking.getStationId());
+            afterRollback(() -> releaseSlot(bookingId));
+        }
         
         Booking savedBooking = bookingRepository.save(booking);
+        bookingOutbox.record(savedBooking, "Cancelled".equals(status) ? BookingEvent.CANCELLED : BookingEvent.STATUS_CHANGED, oldStatus);
         logger.info("Booking {} status updated from '{}' to '{}'. Saved booking status: {}", 
                    bookingId, oldStatus, status, savedBooking.getStatus());
     }
@@ -193,6 +306,43 @@ public class BookingService {
         return bookingRepository.findById(bookingId);
     }
 
+    static boolean isActive(String status) {
+        return !"Cancelled".equals(status) && !"Completed".equals(status);
+    }
+
+    private void releaseSlot(Long bookingId) {
+        bookingCalendar.release(bookingId);
+        slotInventory.release(bookingId);
+    }
+
+    // The slot inventory and calendar are not transactional, so its changes follow the booking transaction's outcome
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void afterRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    action.run();
+                }
+            }
+        });
+    }
+
     private BookingDto convertToDto(Booking booking) {
         BookingDto dto = new BookingDto();
         dto.setId(booking.getId());
@@ -224,4 +374,4 @@ public class BookingService {
         
         return dto;
     }
-}
\ No newline at end of file
+}
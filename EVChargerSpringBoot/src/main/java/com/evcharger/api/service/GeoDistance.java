@@ -0,0 +1,30 @@
+package com.evcharger.api.service;
+
+/**
+ * Great-circle distances on a spherical Earth, shared by the station indexes, route search
+ * and the plain distance sort.
+ */
+public final class GeoDistance {
+    public static final double EARTH_RADIUS_KM = 6371;
+
+    private GeoDistance() {
+    }
+
+    public static double haversineKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return haversineTermToKm(a);
+    }
+
+    /** Distance for an already computed haversine term {@code sin²(Δφ/2) + cosφ1·cosφ2·sin²(Δλ/2)}. */
+    public static double haversineTermToKm(double a) {
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    /** Distance for the straight-line distance between two points on the unit sphere. */
+    public static double chordToKm(double chord) {
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, chord / 2));
+    }
+}
@@ -0,0 +1,227 @@
+package com.evcharger.api.service;
+
+import com.evcharger.api.entity.IdempotencyRecord;
+import com.evcharger.api.repository.IdempotencyRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Responses of recent requests that carried an Idempotency-Key, so client retries can be
+ * answered without running the request again. Recent responses are kept in a bounded LRU map
+ * with a time-to-live and written through to the IdempotencyRecords table, whose unique key
+ * column keeps them across restarts and between instances. Before a request runs, its key is
+ * reserved by inserting a pending row, so a concurrent retry on any instance hits the unique
+ * key and is turned away; the row is filled in with the response, or deleted if the request
+ * failed so it can be retried.
+ */
+@Service
+public class IdempotencyService {
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Value("${idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    @Value("${idempotency.max-entries:10000}")
+    private int maxEntries;
+
+    // A reservation older than this is taken to belong to a request that will never finish
+    @Value("${idempotency.pending-timeout-ms:120000}")
+    private long pendingTimeoutMillis;
+
+    private final Map<String, StoredResponse> recent = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+            return size() > maxEntries;
+        }
+    };
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong databaseHits = new AtomicLong();
+    private final AtomicLong stored = new AtomicLong();
+    private final AtomicLong rejectedInFlight = new AtomicLong();
+
+    /** The stored response for the key, or empty if there is none or it has expired. */
+    public Optional<StoredResponse> find(String key) {
+        StoredResponse response;
+        synchronized (recent) {
+            response = recent.get(key);
+            if (response != null && isExpired(response.createdAt)) {
+                recent.remove(key);
+                response = null;
+            }
+        }
+        if (response != null) {
+            memoryHits.incrementAndGet();
+            return Optional.of(response);
+        }
+
+        Optional<IdempotencyRecord> record;
+        try {
+            record = idempotencyRecordRepository.findByIdempotencyKey(key);
+        } catch (DataAccessException e) {
+            logger.warn("Idempotency lookup failed: {}", e.getMessage());
+            return Optional.empty();
+        }
+        if (record.isEmpty() || record.get().getStatusCode() == null
+                || record.get().getCreatedAt() == null || isExpired(record.get().getCreatedAt())) {
+            return Optional.empty();
+        }
+        response = new StoredResponse(record.get());
+        remember(key, response);
+        databaseHits.incrementAndGet();
+        return Optional.of(response);
+    }
+
+    /**
+     * Reserves the key for a request about to run; false if a request with it is already
+     * running here or on another instance, or has already finished. Must be paired with
+     * {@link #save} or {@link #abandon}, then {@link #end}.
+     */
+    public boolean begin(String key) {
+        if (!inFlight.add(key)) {
+            rejectedInFlight.incrementAndGet();
+            return false;
+        }
+        if (reserve(key) || (clearStaleReservation(key) && reserve(key))) {
+            return true;
+        }
+        inFlight.remove(key);
+        rejectedInFlight.incrementAndGet();
+        return false;
+    }
+
+    public void end(String key) {
+        inFlight.remove(key);
+    }
+
+    /** Stores the response of a request that succeeded, completing its reservation. */
+    public void save(String key, String requestHash, int statusCode, String contentType, byte[] body) {
+        String responseBody = new String(body, StandardCharsets.UTF_8);
+        try {
+            if (idempotencyRecordRepository.complete(key, requestHash, statusCode, contentType, responseBody) == 0) {
+                // The reservation could not be written or was cleared as stale; store the response outright
+                idempotencyRecordRepository.save(new IdempotencyRecord(key, requestHash, statusCode, contentType, responseBody));
+            }
+        } catch (DataIntegrityViolationException e) {
+            // Another instance stored the same key first; its response wins on the next lookup
+            logger.info("Idempotency key already stored: {}", e.getMessage());
+            return;
+        } catch (DataAccessException e) {
+            logger.warn("Idempotency record not persisted, keeping it in memory only: {}", e.getMessage());
+        }
+        remember(key, new StoredResponse(requestHash, statusCode, contentType, body, LocalDateTime.now()));
+        stored.incrementAndGet();
+    }
+
+    /** Drops the reservation of a request that failed, so the client can retry it. */
+    public void abandon(String key) {
+        try {
+            idempotencyRecordRepository.deletePending(key);
+        } catch (DataAccessException e) {
+            logger.warn("Idempotency reservation not released, it expires after {} ms: {}", pendingTimeoutMillis, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.cleanup-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        int deleted = idempotencyRecordRepository.deleteCreatedBefore(LocalDateTime.now().minusHours(ttlHours));
+        if (deleted > 0) {
+            logger.info("Purged {} expired idempotency records", deleted);
+        }
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        synchronized (recent) {
+            metrics.put("cachedResponses", recent.size());
+        }
+        metrics.put("inFlight", inFlight.size());
+        metrics.put("memoryHits", memoryHits.get());
+        metrics.put("databaseHits", databaseHits.get());
+        metrics.put("stored", stored.get());
+        metrics.put("rejectedInFlight", rejectedInFlight.get());
+        return metrics;
+    }
+
+    private boolean reserve(String key) {
+        try {
+            idempotencyRecordRepository.saveAndFlush(new IdempotencyRecord(key, null, null, null, null));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        } catch (DataAccessException e) {
+            // Without the table only this instance is guarded, which beats refusing every request
+            logger.warn("Idempotency key not reserved in the database: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    // An expired response is removed here rather than left for the hourly purge, so its key can be reused
+    private boolean clearStaleReservation(String key) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            return idempotencyRecordRepository.deleteStale(key,
+                    now.minusNanos(pendingTimeoutMillis * 1_000_000), now.minusHours(ttlHours)) > 0;
+        } catch (DataAccessException e) {
+            return false;
+        }
+    }
+
+    private void remember(String key, StoredResponse response) {
+        synchronized (recent) {
+            recent.put(key, response);
+        }
+    }
+
+    private boolean isExpired(LocalDateTime createdAt) {
+        return createdAt.isBefore(LocalDateTime.now().minusHours(ttlHours));
+    }
+
+    public static final class StoredResponse {
+        private final String requestHash;
+        private final int statusCode;
+        private final String contentType;
+        private final byte[] body;
+        private final LocalDateTime createdAt;
+
+        private StoredResponse(IdempotencyRecord record) {
+            this(record.getRequestHash(), record.getStatusCode(), record.getContentType(),
+                    record.getResponseBody() != null ? record.getResponseBody().getBytes(StandardCharsets.UTF_8) : new byte[0],
+                    record.getCreatedAt());
+        }
+
+        private StoredResponse(String requestHash, int statusCode, String contentType, byte[] body, LocalDateTime createdAt) {
+            this.requestHash = requestHash;
+            this.statusCode = statusCode;
+            this.contentType = contentType;
+            this.body = body;
+            this.createdAt = createdAt;
+        }
+
+        public String getRequestHash() { return requestHash; }
+        public int getStatusCode() { return statusCode; }
+        public String getContentType() { return contentType; }
+        public byte[] getBody() { return body; }
+    }
+}
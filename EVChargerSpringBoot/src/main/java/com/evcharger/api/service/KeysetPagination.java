@@ -0,0 +1,81 @@
+package com.evcharger.api.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Page size limits and continuation tokens for keyset-paginated list endpoints. A page is
+ * read with "id after (or before) the last id of the previous page, limit n + 1", so every
+ * page costs an index range scan no matter how deep it is, and the extra row tells whether
+ * there is a next page. The token is the last id, tagged with the list it belongs to and
+ * base64url-encoded; clients must treat it as opaque.
+ */
+@Component
+public class KeysetPagination {
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    @Value("${pagination.default-page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${pagination.max-page-size:200}")
+    private int maxPageSize;
+
+    /** The requested page size, defaulted and capped at the configured maximum. */
+    public int pageSize(Integer limit) {
+        if (limit == null) {
+            return Math.min(defaultPageSize, maxPageSize);
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        return Math.min(limit, maxPageSize);
+    }
+
+    /** The last id of the previous page, or null for the first page. */
+    public Long decode(String list, String cursor) {
+        if (!StringUtils.hasText(cursor)) {
+            return null;
+        }
+        String decoded;
+        try {
+            decoded = new String(DECODER.decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        int separator = decoded.lastIndexOf(':');
+        if (separator < 0 || !decoded.substring(0, separator).equals(list)) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        try {
+            return Long.parseLong(decoded.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public String encode(String list, long lastId) {
+        return ENCODER.encodeToString((list + ":" + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Response body for one page: the first {@code pageSize} rows under {@code key}, and a
+     * nextCursor that is null on the last page. {@code rows} holds up to pageSize + 1 rows.
+     */
+    public <T> Map<String, Object> response(String key, String list, List<T> rows, int pageSize, Function<T, Long> idOf) {
+        boolean hasMore = rows.size() > pageSize;
+        List<T> page = hasMore ? rows.subList(0, pageSize) : rows;
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put(key, page);
+        response.put("nextCursor", hasMore ? encode(list, idOf.apply(page.get(page.size() - 1))) : null);
+        return response;
+    }
+}
@@ -0,0 +1,178 @@
+package com.evcharger.api.service;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A station's free-text operating hours compiled into sorted, merged open intervals (minutes
+ * of the day) for every day of the week. Understands "24/7", ranges such as
+ * "6:00 AM - 10:00 PM" or "08:00-20:00", several ranges separated by commas or semicolons,
+ * optional day prefixes ("Mon-Fri 8 AM - 8 PM; Sat 9 AM - 1 PM; Sun closed", rules add up)
+ * and ranges past midnight, which continue on the next day. Text that cannot be parsed is
+ * treated as always open and reported through {@link #isRecognized()}.
+ */
+public final class OperatingSchedule {
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    private static final Pattern ALWAYS_OPEN = Pattern.compile("24\\s*[/x]\\s*7|(open\\s*)?24\\s*(hours|hrs|h)|always\\s*open");
+    private static final Pattern RULE = Pattern.compile(
+            "(?:(?<days>[a-z]{3})[a-z]*\\.?(?:\\s*(?:-|–|to)\\s*(?<toDay>[a-z]{3})[a-z]*\\.?)?\\s*:?\\s*)?(?<hours>.+)");
+    private static final Pattern RANGE = Pattern.compile(
+            "(?<from>\\d{1,2}(?::\\d{2})?\\s*(?:am|pm)?)\\s*(?:-|–|to)\\s*(?<to>\\d{1,2}(?::\\d{2})?\\s*(?:am|pm)?)");
+    private static final Pattern TIME = Pattern.compile("(\\d{1,2})(?::(\\d{2}))?\\s*(am|pm)?");
+
+    private static final OperatingSchedule ALWAYS = new OperatingSchedule(allDays(new int[] {0, MINUTES_PER_DAY}), true);
+
+    // open[day] holds [open, close) minute pairs, sorted and non-overlapping
+    private final int[][] open;
+    private final boolean recognized;
+
+    private OperatingSchedule(int[][] open, boolean recognized) {
+        this.open = open;
+        this.recognized = recognized;
+    }
+
+    public static OperatingSchedule parse(String text) {
+        if (text == null || text.isBlank()) {
+            return ALWAYS;
+        }
+        String normalized = text.trim().toLowerCase(Locale.ROOT);
+        if (ALWAYS_OPEN.matcher(normalized).matches()) {
+            return ALWAYS;
+        }
+        List<List<int[]>> intervals = new ArrayList<>();
+        for (int day = 0; day < 7; day++) {
+            intervals.add(new ArrayList<>());
+        }
+        for (String part : normalized.split("[;,\\n]")) {
+            if (!part.isBlank() && !addRule(part.trim(), intervals)) {
+                return new OperatingSchedule(ALWAYS.open, false);
+            }
+        }
+        int[][] open = new int[7][];
+        for (int day = 0; day < 7; day++) {
+            open[day] = merge(intervals.get(day));
+        }
+        return new OperatingSchedule(open, true);
+    }
+
+    /** Open [start, end) minute pairs of the given day, flattened. */
+    public int[] openMinutes(DayOfWeek day) {
+        return open[day.getValue() - 1];
+    }
+
+    public boolean isRecognized() {
+        return recognized;
+    }
+
+    private static boolean addRule(String rule, List<List<int[]>> intervals) {
+        Matcher matcher = RULE.matcher(rule);
+        if (!matcher.matches()) {
+            return false;
+        }
+        int firstDay = 0;
+        int lastDay = 6;
+        String hours = matcher.group("hours").trim();
+        if (matcher.group("days") != null) {
+            int from = dayIndex(matcher.group("days"));
+            int to = matcher.group("toDay") != null ? dayIndex(matcher.group("toDay")) : from;
+            if (from < 0 || to < 0) {
+                // Not a day name (e.g. "open ..."); parse the whole rule as hours
+                hours = rule;
+            } else {
+                firstDay = from;
+                lastDay = to < from ? to + 7 : to;
+            }
+        }
+
+        List<int[]> ranges = new ArrayList<>();
+        if (hours.equals("closed")) {
+            return true;
+        } else if (ALWAYS_OPEN.matcher(hours).matches()) {
+            ranges.add(new int[] {0, MINUTES_PER_DAY});
+        } else {
+            Matcher range = RANGE.matcher(hours);
+            if (!range.matches()) {
+                return false;
+            }
+            int start = minuteOfDay(range.group("from"), false);
+            int end = minuteOfDay(range.group("to"), true);
+            if (start < 0 || end < 0) {
+                return false;
+            }
+            ranges.add(new int[] {start, end});
+        }
+
+        for (int d = firstDay; d <= lastDay; d++) {
+            int day = d % 7;
+            for (int[] range : ranges) {
+                if (range[1] > range[0]) {
+                    intervals.get(day).add(range);
+                } else {
+                    // Past midnight: the rest of this day plus the start of the next one
+                    intervals.get(day).add(new int[] {range[0], MINUTES_PER_DAY});
+                    intervals.get((day + 1) % 7).add(new int[] {0, range[1]});
+                }
+            }
+        }
+        return true;
+    }
+
+    private static int minuteOfDay(String time, boolean closing) {
+        Matcher matcher = TIME.matcher(time.trim());
+        if (!matcher.matches()) {
+            return -1;
+        }
+        int hour = Integer.parseInt(matcher.group(1));
+        int minute = matcher.group(2) != null ? Integer.parseInt(matcher.group(2)) : 0;
+        String meridiem = matcher.group(3);
+        if (minute > 59 || (meridiem != null && (hour < 1 || hour > 12)) || hour > 24) {
+            return -1;
+        }
+        if (meridiem != null) {
+            hour = hour % 12 + (meridiem.equals("pm") ? 12 : 0);
+        }
+        int minutes = Math.min(hour * 60 + minute, MINUTES_PER_DAY);
+        // "12 AM" or "00:00" as a closing time means the end of the day
+        return closing && minutes == 0 ? MINUTES_PER_DAY : minutes;
+    }
+
+    private static int dayIndex(String prefix) {
+        switch (prefix) {
+            case "mon": return 0;
+            case "tue": return 1;
+            case "wed": return 2;
+            case "thu": return 3;
+            case "fri": return 4;
+            case "sat": return 5;
+            case "sun": return 6;
+            default: return -1;
+        }
+    }
+
+    private static int[] merge(List<int[]> intervals) {
+        intervals.sort((a, b) -> Integer.compare(a[0], b[0]));
+        int[] merged = new int[intervals.size() * 2];
+        int n = 0;
+        for (int[] interval : intervals) {
+            if (n > 0 && interval[0] <= merged[n - 1]) {
+                merged[n - 1] = Math.max(merged[n - 1], interval[1]);
+            } else {
+                merged[n++] = interval[0];
+                merged[n++] = interval[1];
+            }
+        }
+        return Arrays.copyOf(merged, n);
+    }
+
+    private static int[][] allDays(int[] intervals) {
+        int[][] open = new int[7][];
+        Arrays.fill(open, intervals);
+        return open;
+    }
+}
@@ -0,0 +1,84 @@
+package com.evcharger.api.service;
+
+import java.util.Arrays;
+
+/**
+ * A route decoded from the encoded polyline format used by Google Maps and most routing APIs
+ * (precision 1e-5), with the cumulative great-circle distance at every point.
+ */
+public final class RoutePolyline {
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final double[] cumulativeKm;
+
+    private RoutePolyline(double[] latitudes, double[] longitudes) {
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.cumulativeKm = new double[latitudes.length];
+        for (int i = 1; i < latitudes.length; i++) {
+            cumulativeKm[i] = cumulativeKm[i - 1] + GeoDistance.haversineKm(latitudes[i - 1], longitudes[i - 1], latitudes[i], longitudes[i]);
+        }
+    }
+
+    public static RoutePolyline decode(String encoded, int maxPoints) {
+        double[] lats = new double[Math.min(maxPoints, Math.max(1, encoded.length() / 2))];
+        double[] lngs = new double[lats.length];
+        int count = 0;
+        int index = 0;
+        int lat = 0;
+        int lng = 0;
+        int[] next = new int[1];
+        while (index < encoded.length()) {
+            index = decodeValue(encoded, index, next);
+            lat += next[0];
+            index = decodeValue(encoded, index, next);
+            lng += next[0];
+            if (count == lats.length) {
+                if (count == maxPoints) {
+                    throw new RuntimeException("Route has more than " + maxPoints + " points");
+                }
+                lats = Arrays.copyOf(lats, Math.min(maxPoints, count * 2));
+                lngs = Arrays.copyOf(lngs, lats.length);
+            }
+            lats[count] = lat / 1e5;
+            lngs[count] = lng / 1e5;
+            if (Math.abs(lats[count]) > 90 || Math.abs(lngs[count]) > 180) {
+                throw new RuntimeException("Invalid route polyline");
+            }
+            count++;
+        }
+        if (count < 2) {
+            throw new RuntimeException("Route must contain at least two points");
+        }
+        return new RoutePolyline(Arrays.copyOf(lats, count), Arrays.copyOf(lngs, count));
+    }
+
+    private static int decodeValue(String encoded, int index, int[] out) {
+        int result = 0;
+        int shift = 0;
+        int b;
+        do {
+            if (index >= encoded.length() || shift > 30) {
+                throw new RuntimeException("Invalid route polyline");
+            }
+            b = encoded.charAt(index++) - 63;
+            if (b < 0 || b > 63) {
+                throw new RuntimeException("Invalid route polyline");
+            }
+            result |= (b & 0x1f) << shift;
+            shift += 5;
+        } while (b >= 0x20);
+        out[0] = (result & 1) != 0 ? ~(result >> 1) : (result >> 1);
+        return index;
+    }
+
+    public int size() { return latitudes.length; }
+
+    public double latitudeAt(int i) { return latitudes[i]; }
+
+    public double longitudeAt(int i) { return longitudes[i]; }
+
+    public double cumulativeKmAt(int i) { return cumulativeKm[i]; }
+
+    public double lengthKm() { return cumulativeKm[cumulativeKm.length - 1]; }
+}
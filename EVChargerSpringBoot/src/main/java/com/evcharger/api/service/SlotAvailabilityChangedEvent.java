@@ -0,0 +1,17 @@
+package com.evcharger.api.service;
+
+import java.util.Map;
+
+/**
+ * Published by {@link SlotInventory} after each write-behind flush with the latest available
+ * slot count of every station that changed since the previous flush.
+ */
+public class SlotAvailabilityChangedEvent {
+    private final Map<Long, Integer> availableSlots;
+
+    public SlotAvailabilityChangedEvent(Map<Long, Integer> availableSlots) {
+        this.availableSlots = availableSlots;
+    }
+
+    public Map<Long, Integer> getAvailableSlots() { return availableSlots; }
+}
@@ -0,0 +1,224 @@
+package com.evcharger.api.service;
+
+import com.evcharger.api.entity.Station;
+import com.evcharger.api.repository.BookingRepository;
+import com.evcharger.api.repository.StationRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Owner of every station's available slot count. Each station has an atomic counter of the
+ * active bookings holding one of its slots, and available slots are total slots minus that
+ * count, floored at zero. Booking and cancelling only touch the counter and the map of
+ * bookings currently holding a slot; no station row is read or locked. Whether a booking fits
+ * is decided by {@link BookingCalendar} on its time window. Changed counts are written to the
+ * Stations table in one coalesced JDBC batch per flush interval, and the read views are
+ * patched from the same batch.
+ *
+ * At startup the counters are rebuilt from the active bookings and written back, which also
+ * repairs any drift left by a crash between two flushes.
+ */
+@Component
+public class SlotInventory {
+    private static final Logger logger = LoggerFactory.getLogger(SlotInventory.class);
+
+    @Autowired
+    private StationRepository stationRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final Map<Long, AtomicInteger> held = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> totals = new ConcurrentHashMap<>();
+    private final Map<Long, Long> heldByBooking = new ConcurrentHashMap<>();
+    private final Map<String, Long> heldByHold = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong flushedRows = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public synchronized void rebuild() {
+        Map<Long, Integer> activeByStation = new HashMap<>();
+        heldByBooking.clear();
+        for (Object[] row : bookingRepository.findActiveBookingStations()) {
+            Long bookingId = (Long) row[0];
+            Long stationId = (Long) row[1];
+            heldByBooking.put(bookingId, stationId);
+            activeByStation.merge(stationId, 1, Integer::sum);
+        }
+        for (Long stationId : heldByHold.values()) {
+            activeByStation.merge(stationId, 1, Integer::sum);
+        }
+
+        held.clear();
+        totals.clear();
+        for (Station station : stationRepository.findAll()) {
+            int total = station.getTotalSlots() != null ? station.getTotalSlots() : 0;
+            int active = activeByStation.getOrDefault(station.getId(), 0);
+            totals.put(station.getId(), total);
+            held.put(station.getId(), new AtomicInteger(active));
+            if (station.getAvailableSlots() == null || station.getAvailableSlots() != Math.max(0, total - active)) {
+                dirty.add(station.getId());
+            }
+        }
+        logger.info("Slot inventory rebuilt for {} stations, {} active bookings, {} counters corrected",
+                held.size(), heldByBooking.size(), dirty.size());
+        flush();
+    }
+
+    /** Counts the booking against its station; a no-op if it already holds a slot. */
+    public void acquire(Long bookingId, Long stationId) {
+        AtomicInteger counter = held.get(stationId);
+        if (counter != null && heldByBooking.putIfAbsent(bookingId, stationId) == null) {
+            counter.incrementAndGet();
+            dirty.add(stationId);
+        }
+    }
+
+    public boolean isHeld(Long bookingId) {
+        return heldByBooking.containsKey(bookingId);
+    }
+
+    /** Gives back the slot held by the booking; a no-op if it holds none, so repeated cancels are harmless. */
+    public void release(Long bookingId) {
+        Long stationId = heldByBooking.remove(bookingId);
+        AtomicInteger counter = stationId != null ? held.get(stationId) : null;
+        if (counter != null) {
+            counter.updateAndGet(current -> Math.max(0, current - 1));
+            dirty.add(stationId);
+        }
+    }
+
+    /** Counts an unpaid booking hold against its station until it is released. */
+    public void acquireHold(String holdId, Long stationId) {
+        AtomicInteger counter = held.get(stationId);
+        if (counter != null && heldByHold.putIfAbsent(holdId, stationId) == null) {
+            counter.incrementAndGet();
+            dirty.add(stationId);
+        }
+    }
+
+    public void releaseHold(String holdId) {
+        Long stationId = heldByHold.remove(holdId);
+        AtomicInteger counter = stationId != null ? held.get(stationId) : null;
+        if (counter != null) {
+            counter.updateAndGet(current -> Math.max(0, current - 1));
+            dirty.add(stationId);
+        }
+    }
+
+    /**
+     * Starts tracking a new station or picks up a change of its total slots. Returns the
+     * station's available slot count.
+     */
+    public int track(Station station) {
+        int total = station.getTotalSlots() != null ? station.getTotalSlots() : 0;
+        held.putIfAbsent(station.getId(), new AtomicInteger());
+        Integer previousTotal = totals.put(station.getId(), total);
+        if (previousTotal == null || previousTotal != total) {
+            dirty.add(station.getId());
+        }
+        return getAvailableSlots(station.getId());
+    }
+
+    public void remove(Long stationId) {
+        held.remove(stationId);
+        totals.remove(stationId);
+        dirty.remove(stationId);
+        heldByBooking.values().removeIf(stationId::equals);
+        heldByHold.values().removeIf(stationId::equals);
+    }
+
+    public Integer getAvailableSlots(Long stationId) {
+        AtomicInteger counter = held.get(stationId);
+        Integer total = totals.get(stationId);
+        return counter != null && total != null ? Math.max(0, total - counter.get()) : null;
+    }
+
+    public Integer getTotalSlots(Long stationId) {
+        return totals.get(stationId);
+    }
+
+    @Scheduled(fixedDelayString = "${bookings.slot-inventory.flush-interval-ms:500}")
+    public synchronized void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        Map<Long, Integer> changed = new LinkedHashMap<>();
+        for (Iterator<Long> it = dirty.iterator(); it.hasNext(); ) {
+            Long stationId = it.next();
+            it.remove();
+            Integer availableSlots = getAvailableSlots(stationId);
+            if (availableSlots != null) {
+                changed.put(stationId, availableSlots);
+            }
+        }
+        if (changed.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batch = new ArrayList<>(changed.size());
+        for (Map.Entry<Long, Integer> entry : changed.entrySet()) {
+            batch.add(new Object[] {entry.getValue(), entry.getKey()});
+        }
+        try {
+            jdbcTemplate.batchUpdate("UPDATE stations SET available_slots = ? WHERE id = ?", batch);
+            flushes.incrementAndGet();
+            flushedRows.addAndGet(batch.size());
+        } catch (DataAccessException e) {
+            // Counters stay authoritative; retry the same stations on the next flush
+            failedFlushes.incrementAndGet();
+            dirty.addAll(changed.keySet());
+            logger.error("Slot inventory flush of {} stations failed: {}", changed.size(), e.getMessage());
+        }
+        eventPublisher.publishEvent(new SlotAvailabilityChangedEvent(changed));
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("stations", held.size());
+        metrics.put("heldReservations", heldByBooking.size());
+        metrics.put("heldHolds", heldByHold.size());
+        metrics.put("pendingStations", dirty.size());
+        metrics.put("flushes", flushes.get());
+        metrics.put("flushedRows", flushedRows.get());
+        metrics.put("failedFlushes", failedFlushes.get());
+        return metrics;
+    }
+}
@@ -0,0 +1,243 @@
+package com.evcharger.api.service;
+
+import com.evcharger.api.dto.StationClusterDto;
+import com.evcharger.api.entity.Station;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Hierarchical grid of pre-aggregated station clusters for the map view. Level {@code L} splits
+ * the world into square cells of {@code 360 / 2^L} degrees, and every approved station is
+ * counted in exactly one cell per level. A change to one station only touches its
+ * {@code MAX_LEVEL + 1} cells, so the index is kept up to date incrementally and a viewport
+ * query only reads the cells it covers. Viewport queries share a read lock and only wait for
+ * writers.
+ */
+@Component
+public class StationClusterIndex {
+    public static final int MAX_LEVEL = 20;
+
+    private final List<Map<Long, Cell>> levels = new ArrayList<>(MAX_LEVEL + 1);
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public StationClusterIndex() {
+        for (int level = 0; level <= MAX_LEVEL; level++) {
+            levels.add(new HashMap<>());
+        }
+    }
+
+    public void rebuild(Collection<Station> stations) {
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            for (Map<Long, Cell> cells : levels) {
+                cells.clear();
+            }
+            for (Station station : stations) {
+                upsert(station);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void upsert(Station station) {
+        lock.writeLock().lock();
+        try {
+            if (station.getId() == null) {
+                return;
+            }
+            remove(station.getId());
+            if (!isClustered(station)) {
+                return;
+            }
+            Entry entry = new Entry(station.getLatitude(), station.getLongitude(),
+                    station.getAvailableSlots() != null ? station.getAvailableSlots() : 0, station.getPricePerKwh());
+            entries.put(station.getId(), entry);
+            apply(station.getId(), entry, 1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long stationId) {
+        lock.writeLock().lock();
+        try {
+            Entry existing = entries.remove(stationId);
+            if (existing != null) {
+                apply(stationId, existing, -1);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void updateAvailableSlots(Long stationId, int availableSlots) {
+        lock.writeLock().lock();
+        try {
+            Entry existing = entries.get(stationId);
+            if (existing == null) {
+                return;
+            }
+            int delta = availableSlots - existing.availableSlots;
+            existing.availableSlots = availableSlots;
+            for (int level = 0; level <= MAX_LEVEL; level++) {
+                Cell cell = levels.get(level).get(cellKey(level, existing.latitude, existing.longitude));
+                if (cell != null) {
+                    cell.availableSlots += delta;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Clusters of the cells at {@code level} that overlap the viewport. A viewport with
+     * {@code minLng > maxLng} crosses the antimeridian and is split in two.
+     */
+    public List<StationClusterDto> clusters(double minLat, double minLng, double maxLat, double maxLng, int level) {
+        lock.readLock().lock();
+        try {
+            List<StationClusterDto> clusters = new ArrayList<>();
+            if (minLng > maxLng) {
+                collect(level, minLat, maxLat, minLng, 180.0, clusters);
+                collect(level, minLat, maxLat, -180.0, maxLng, clusters);
+            } else {
+                collect(level, minLat, maxLat, minLng, maxLng, clusters);
+            }
+            return clusters;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static int levelForZoom(int zoom) {
+        // Four cells per 256px map tile edge
+        return Math.max(0, Math.min(MAX_LEVEL, zoom + 2));
+    }
+
+    private void collect(int level, double minLat, double maxLat, double minLng, double maxLng, List<StationClusterDto> out) {
+        Map<Long, Cell> cells = levels.get(level);
+        int minRow = row(level, minLat);
+        int maxRow = row(level, maxLat);
+        int minColumn = column(level, minLng);
+        int maxColumn = column(level, maxLng);
+        long viewportCells = ((long) maxRow - minRow + 1) * ((long) maxColumn - minColumn + 1);
+
+        // Probe the covered cells unless there are fewer occupied cells than that
+        if (viewportCells <= cells.size()) {
+            for (int row = minRow; row <= maxRow; row++) {
+                for (int column = minColumn; column <= maxColumn; column++) {
+                    Cell cell = cells.get(key(row, column));
+                    if (cell != null) {
+                        out.add(cell.toDto());
+                    }
+                }
+            }
+        } else {
+            for (Map.Entry<Long, Cell> cell : cells.entrySet()) {
+                int row = (int) (cell.getKey() >>> 32);
+                int column = (int) (cell.getKey() & 0xffffffffL);
+                if (row >= minRow && row <= maxRow && column >= minColumn && column <= maxColumn) {
+                    out.add(cell.getValue().toDto());
+                }
+            }
+        }
+    }
+
+    private void apply(Long stationId, Entry entry, int sign) {
+        for (int level = 0; level <= MAX_LEVEL; level++) {
+            Map<Long, Cell> cells = levels.get(level);
+            long key = cellKey(level, entry.latitude, entry.longitude);
+            Cell cell = cells.computeIfAbsent(key, k -> new Cell());
+            cell.count += sign;
+            cell.sumLatitude += sign * entry.latitude;
+            cell.sumLongitude += sign * entry.longitude;
+            cell.availableSlots += sign * entry.availableSlots;
+            if (entry.pricePerKwh != null) {
+                cell.prices.merge(entry.pricePerKwh, sign, Integer::sum);
+                if (cell.prices.get(entry.pricePerKwh) <= 0) {
+                    cell.prices.remove(entry.pricePerKwh);
+                }
+            }
+            cell.sumStationIds += sign * stationId;
+            if (cell.count <= 0) {
+                cells.remove(key);
+            }
+        }
+    }
+
+    private static long cellKey(int level, double lat, double lng) {
+        return key(row(level, lat), column(level, lng));
+    }
+
+    private static long key(int row, int column) {
+        return ((long) row << 32) | (column & 0xffffffffL);
+    }
+
+    private static int row(int level, double lat) {
+        double cellSize = 360.0 / (1L << level);
+        int rows = (int) Math.ceil(180.0 / cellSize);
+        int row = (int) Math.floor((Math.max(-90.0, Math.min(90.0, lat)) + 90.0) / cellSize);
+        return Math.min(row, rows - 1);
+    }
+
+    private static int column(int level, double lng) {
+        long columns = 1L << level;
+        int column = (int) Math.floor((Math.max(-180.0, Math.min(180.0, lng)) + 180.0) / (360.0 / columns));
+        return (int) Math.min(column, columns - 1);
+    }
+
+    private static boolean isClustered(Station station) {
+        return "Approved".equals(station.getApprovalStatus())
+                && station.getLatitude() != null
+                && station.getLongitude() != null;
+    }
+
+    private static final class Cell {
+        private int count;
+        private double sumLatitude;
+        private double sumLongitude;
+        private int availableSlots;
+        // Price multiset, so the minimum survives removals
+        private final TreeMap<BigDecimal, Integer> prices = new TreeMap<>();
+        // Equals the member's id whenever count == 1
+        private long sumStationIds;
+
+        private StationClusterDto toDto() {
+            StationClusterDto dto = new StationClusterDto();
+            dto.setCount(count);
+            dto.setLatitude(sumLatitude / count);
+            dto.setLongitude(sumLongitude / count);
+            dto.setAvailableSlots(availableSlots);
+            dto.setMinPricePerKwh(prices.isEmpty() ? null : prices.firstKey());
+            // Single-station clusters link straight to the station
+            dto.setStationId(count == 1 ? sumStationIds : null);
+            return dto;
+        }
+    }
+
+    private static final class Entry {
+        private final double latitude;
+        private final double longitude;
+        private int availableSlots;
+        private final BigDecimal pricePerKwh;
+
+        private Entry(double latitude, double longitude, int availableSlots, BigDecimal pricePerKwh) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.availableSlots = availableSlots;
+            this.pricePerKwh = pricePerKwh;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.evcharger.api.service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable structure-of-arrays view of the searchable stations: one slot per station
+ * ("ordinal") in parallel primitive arrays, so the distance kernel runs over doubles without
+ * touching boxed getters or allocating per station. Only {@code availableSlots} is patched in
+ * place, since it changes on every booking and is only used as a sort tie-break.
+ */
+public final class StationCoordinateSnapshot {
+    // Beyond this the equirectangular approximation is no longer a safe prefilter
+    private static final double PREFILTER_MAX_RANGE_KM = 1000;
+    private static final double PREFILTER_SLACK = 1.1;
+
+    private final int size;
+    private final long[] ids;
+    private final double[] latRad;
+    private final double[] lngRad;
+    private final double[] cosLat;
+    private final int[] availableSlots;
+    private final Map<Long, Integer> ordinals;
+
+    StationCoordinateSnapshot(long[] ids, double[] latitudes, double[] longitudes, int[] availableSlots) {
+        this.size = ids.length;
+        this.ids = ids;
+        this.latRad = new double[size];
+        this.lngRad = new double[size];
+        this.cosLat = new double[size];
+        this.availableSlots = availableSlots;
+        this.ordinals = new HashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            latRad[i] = Math.toRadians(latitudes[i]);
+            lngRad[i] = Math.toRadians(longitudes[i]);
+            cosLat[i] = Math.cos(latRad[i]);
+            ordinals.put(ids[i], i);
+        }
+    }
+
+    public int size() { return size; }
+
+    long idAt(int ordinal) { return ids[ordinal]; }
+
+    double latitudeRadiansAt(int ordinal) { return latRad[ordinal]; }
+
+    double longitudeRadiansAt(int ordinal) { return lngRad[ordinal]; }
+
+    int availableSlotsAt(int ordinal) { return availableSlots[ordinal]; }
+
+    long[] ids() { return ids; }
+
+    double[] latitudesRadians() { return latRad; }
+
+    double[] longitudesRadians() { return lngRad; }
+
+    boolean setAvailableSlots(long stationId, int slots) {
+        Integer ordinal = ordinals.get(stationId);
+        if (ordinal == null) {
+            return false;
+        }
+        availableSlots[ordinal] = slots;
+        return true;
+    }
+
+    /**
+     * Distance kernel. Tests the candidate ordinals against the search circle and writes the
+     * ordinals that are inside it to {@code hits} and their great-circle distances (km) to
+     * {@code distances}, returning the number of hits. An equirectangular estimate rejects
+     * most far candidates before the exact haversine term is computed, and the haversine is
+     * compared against a precomputed threshold so asin/sqrt only run for actual hits.
+     */
+    int scan(double lat, double lng, double rangeKm, int[] candidates, int candidateCount,
+             int[] hits, double[] distances) {
+        final double qLat = Math.toRadians(lat);
+        final double qLng = Math.toRadians(lng);
+        final double qCos = Math.cos(qLat);
+        final double rangeRad = rangeKm / GeoDistance.EARTH_RADIUS_KM;
+        final double sinHalfRange = Math.sin(Math.min(Math.PI, rangeRad) / 2);
+        final double threshold = sinHalfRange * sinHalfRange;
+        final boolean prefilter = rangeKm <= PREFILTER_MAX_RANGE_KM;
+        final double prefilterLimit = (rangeRad * PREFILTER_SLACK) * (rangeRad * PREFILTER_SLACK);
+
+        int hitCount = 0;
+        for (int c = 0; c < candidateCount; c++) {
+            int i = candidates[c];
+            double dLat = latRad[i] - qLat;
+            double dLng = lngRad[i] - qLng;
+            if (dLng > Math.PI) {
+                dLng -= 2 * Math.PI;
+            } else if (dLng < -Math.PI) {
+                dLng += 2 * Math.PI;
+            }
+
+            if (prefilter) {
+                double x = dLng * 0.5 * (qCos + cosLat[i]);
+                if (dLat * dLat + x * x > prefilterLimit) {
+                    continue;
+                }
+            }
+
+            double sinLat = Math.sin(dLat * 0.5);
+            double sinLng = Math.sin(dLng * 0.5);
+            double a = sinLat * sinLat + qCos * cosLat[i] * sinLng * sinLng;
+            if (a <= threshold) {
+                hits[hitCount] = i;
+                distances[hitCount] = GeoDistance.haversineTermToKm(a);
+                hitCount++;
+            }
+        }
+        return hitCount;
+    }
+
+    /**
+     * Sorts the first {@code count} hits by distance, then by available slots (most first),
+     * keeping {@code hits} and {@code distances} in step. In-place, no boxing.
+     */
+    void sortHits(int[] hits, double[] distances, int count) {
+        sortHits(hits, distances, 0, count - 1);
+    }
+
+    private void sortHits(int[] hits, double[] distances, int lo, int hi) {
+        while (lo < hi) {
+            if (hi - lo < 16) {
+                for (int i = lo + 1; i <= hi; i++) {
+                    for (int j = i; j > lo && compareHits(hits, distances, j, j - 1) < 0; j--) {
+                        swap(hits, distances, j, j - 1);
+                    }
+                }
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            swap(hits, distances, mid, hi);
+            int store = lo;
+            for (int i = lo; i < hi; i++) {
+                if (compareHits(hits, distances, i, hi) < 0) {
+                    swap(hits, distances, i, store++);
+                }
+            }
+            swap(hits, distances, store, hi);
+            // Recurse into the smaller side to keep the stack shallow
+            if (store - lo < hi - store) {
+                sortHits(hits, distances, lo, store - 1);
+                lo = store + 1;
+            } else {
+                sortHits(hits, distances, store + 1, hi);
+                hi = store - 1;
+            }
+        }
+    }
+
+    private int compareHits(int[] hits, double[] distances, int a, int b) {
+        int byDistance = Double.compare(distances[a], distances[b]);
+        if (byDistance != 0) {
+            return byDistance;
+        }
+        return Integer.compare(availableSlots[hits[b]], availableSlots[hits[a]]);
+    }
+
+    private static void swap(int[] hits, double[] distances, int a, int b) {
+        int hit = hits[a];
+        hits[a] = hits[b];
+        hits[b] = hit;
+        double distance = distances[a];
+        distances[a] = distances[b];
+        distances[b] = distance;
+    }
+}
@@ -0,0 +1,269 @@
+package com.evcharger.api.service;
+
+import com.evcharger.api.dto.StationDto;
+import com.evcharger.api.dto.StationFilterDto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.DoublePredicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Facet bitmaps over one {@link StationViewSnapshot}. Station ordinals are the positions in
+ * the snapshot's id-ordered station list, connector and amenity values are interned to dense
+ * ids with one bitmap each, and power output and price are bucketed into ranges with one
+ * bitmap per bucket. A filter is then a handful of bitmap intersections, and facet counts are
+ * cardinalities of intersections with the result bitmap.
+ *
+ * Immutable once built; a new index is built per snapshot version.
+ */
+public final class StationFacetIndex {
+    private static final double[] POWER_BUCKETS_KW = {0, 7.4, 22, 50, 100, 150, 350};
+    private static final double[] PRICE_BUCKETS = {0, 5, 10, 15, 20};
+    private static final Pattern NUMBER = Pattern.compile("(\\d+(?:\\.\\d+)?)");
+
+    private final long[] ids;
+    private final ValueFacet connectors = new ValueFacet();
+    private final ValueFacet amenities = new ValueFacet();
+    private final RangeFacet power;
+    private final RangeFacet price;
+    private final BitSet approved = new BitSet();
+
+    StationFacetIndex(List<StationDto> stations) {
+        int n = stations.size();
+        this.ids = new long[n];
+        double[] powerKw = new double[n];
+        double[] pricePerKwh = new double[n];
+        for (int ordinal = 0; ordinal < n; ordinal++) {
+            StationDto station = stations.get(ordinal);
+            ids[ordinal] = station.getId();
+            connectors.add(station.getConnectorTypes(), ordinal);
+            amenities.add(station.getAmenities(), ordinal);
+            powerKw[ordinal] = parsePowerKw(station.getPowerOutput());
+            pricePerKwh[ordinal] = station.getPricePerKwh() != null ? station.getPricePerKwh().doubleValue() : Double.NaN;
+            if ("Approved".equals(station.getApprovalStatus())) {
+                approved.set(ordinal);
+            }
+        }
+        this.power = new RangeFacet(POWER_BUCKETS_KW, powerKw);
+        this.price = new RangeFacet(PRICE_BUCKETS, pricePerKwh);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /** Ordinal of the station in this index, or -1 when it is not part of the snapshot. */
+    public int ordinalOf(long stationId) {
+        int ordinal = Arrays.binarySearch(ids, stationId);
+        return ordinal >= 0 ? ordinal : -1;
+    }
+
+    public long idAt(int ordinal) {
+        return ids[ordinal];
+    }
+
+    /**
+     * Ordinals matching the filter: any of the requested connectors, all of the requested
+     * amenities, at least the requested power and at most the requested price.
+     */
+    public BitSet select(StationFilterDto filter, boolean approvedOnly) {
+        BitSet result = approvedOnly ? (BitSet) approved.clone() : all();
+        if (filter == null) {
+            return result;
+        }
+        if (filter.getConnectors() != null && !filter.getConnectors().isEmpty()) {
+            result.and(connectors.any(filter.getConnectors()));
+        }
+        if (filter.getAmenities() != null) {
+            for (String amenity : filter.getAmenities()) {
+                result.and(amenities.get(amenity));
+            }
+        }
+        if (filter.getMinPowerKw() != null) {
+            result.and(power.atLeast(filter.getMinPowerKw()));
+        }
+        if (filter.getMaxPricePerKwh() != null) {
+            result.and(price.atMost(filter.getMaxPricePerKwh()));
+        }
+        return result;
+    }
+
+    public Map<String, Object> facetCounts(BitSet result) {
+        Map<String, Object> facets = new LinkedHashMap<>();
+        facets.put("connectors", connectors.counts(result));
+        facets.put("amenities", amenities.counts(result));
+        facets.put("powerKw", power.counts(result, "kW"));
+        facets.put("pricePerKwh", price.counts(result, ""));
+        return facets;
+    }
+
+    private BitSet all() {
+        BitSet bits = new BitSet(ids.length);
+        bits.set(0, ids.length);
+        return bits;
+    }
+
+    static double parsePowerKw(String powerOutput) {
+        if (powerOutput == null) {
+            return Double.NaN;
+        }
+        Matcher matcher = NUMBER.matcher(powerOutput);
+        if (!matcher.find()) {
+            return Double.NaN;
+        }
+        double value = Double.parseDouble(matcher.group(1));
+        String unit = powerOutput.substring(matcher.end()).trim().toLowerCase(Locale.ROOT);
+        if (unit.startsWith("mw")) {
+            return value * 1000;
+        }
+        return unit.startsWith("w") ? value / 1000 : value;
+    }
+
+    private static String key(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Interned string values (case-insensitive) with one bitmap per value id
+    private static final class ValueFacet {
+        private final Map<String, Integer> valueIds = new HashMap<>();
+        private final List<String> labels = new ArrayList<>();
+        private final List<BitSet> bitmaps = new ArrayList<>();
+
+        private void add(String[] values, int ordinal) {
+            if (values == null) {
+                return;
+            }
+            for (String value : values) {
+                if (value == null || value.isBlank()) {
+                    continue;
+                }
+                Integer id = valueIds.get(key(value));
+                if (id == null) {
+                    id = labels.size();
+                    valueIds.put(key(value), id);
+                    labels.add(value.trim());
+                    bitmaps.add(new BitSet());
+                }
+                bitmaps.get(id).set(ordinal);
+            }
+        }
+
+        private BitSet get(String value) {
+            Integer id = valueIds.get(key(value));
+            return id != null ? bitmaps.get(id) : new BitSet();
+        }
+
+        private BitSet any(Collection<String> values) {
+            BitSet union = new BitSet();
+            for (String value : values) {
+                union.or(get(value));
+            }
+            return union;
+        }
+
+        private Map<String, Integer> counts(BitSet result) {
+            Map<String, Integer> counts = new LinkedHashMap<>();
+            for (int id = 0; id < labels.size(); id++) {
+                BitSet bits = (BitSet) bitmaps.get(id).clone();
+                bits.and(result);
+                if (!bits.isEmpty()) {
+                    counts.put(labels.get(id), bits.cardinality());
+                }
+            }
+            return counts;
+        }
+    }
+
+    // Numeric value bucketed by lower bounds; only the bucket straddling a query bound is checked value by value
+    private static final class RangeFacet {
+        private final double[] bounds;
+        private final double[] values;
+        private final BitSet[] buckets;
+
+        private RangeFacet(double[] bounds, double[] values) {
+            this.bounds = bounds;
+            this.values = values;
+            this.buckets = new BitSet[bounds.length];
+            for (int b = 0; b < bounds.length; b++) {
+                buckets[b] = new BitSet();
+            }
+            for (int ordinal = 0; ordinal < values.length; ordinal++) {
+                int bucket = bucketOf(values[ordinal]);
+                if (bucket >= 0) {
+                    buckets[bucket].set(ordinal);
+                }
+            }
+        }
+
+        private int bucketOf(double value) {
+            if (Double.isNaN(value) || value < bounds[0]) {
+                return -1;
+            }
+            int bucket = 0;
+            while (bucket + 1 < bounds.length && value >= bounds[bucket + 1]) {
+                bucket++;
+            }
+            return bucket;
+        }
+
+        private BitSet atLeast(double min) {
+            BitSet result = new BitSet();
+            for (int b = 0; b < buckets.length; b++) {
+                double upper = b + 1 < bounds.length ? bounds[b + 1] : Double.POSITIVE_INFINITY;
+                if (bounds[b] >= min) {
+                    result.or(buckets[b]);
+                } else if (upper > min) {
+                    refine(buckets[b], result, value -> value >= min);
+                }
+            }
+            return result;
+        }
+
+        private BitSet atMost(double max) {
+            BitSet result = new BitSet();
+            for (int b = 0; b < buckets.length; b++) {
+                double upper = b + 1 < bounds.length ? bounds[b + 1] : Double.POSITIVE_INFINITY;
+                if (upper <= max) {
+                    result.or(buckets[b]);
+                } else if (bounds[b] <= max) {
+                    refine(buckets[b], result, value -> value <= max);
+                }
+            }
+            return result;
+        }
+
+        private void refine(BitSet bucket, BitSet result, DoublePredicate test) {
+            for (int ordinal = bucket.nextSetBit(0); ordinal >= 0; ordinal = bucket.nextSetBit(ordinal + 1)) {
+                if (test.test(values[ordinal])) {
+                    result.set(ordinal);
+                }
+            }
+        }
+
+        private Map<String, Integer> counts(BitSet result, String unit) {
+            Map<String, Integer> counts = new LinkedHashMap<>();
+            for (int b = 0; b < buckets.length; b++) {
+                BitSet bits = (BitSet) buckets[b].clone();
+                bits.and(result);
+                String label = b + 1 < bounds.length
+                        ? format(bounds[b]) + "-" + format(bounds[b + 1]) + unit
+                        : format(bounds[b]) + "+" + unit;
+                counts.put(label, bits.cardinality());
+            }
+            return counts;
+        }
+
+        private static String format(double bound) {
+            return bound == Math.rint(bound) ? String.valueOf((long) bound) : String.valueOf(bound);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.evcharger.api.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Immutable KD-tree over station coordinates. Points are stored as unit vectors on the sphere,
+ * so straight-line (chord) distance orders stations exactly like great-circle distance and the
+ * tree never has to special-case the antimeridian or the poles.
+ *
+ * The tree is implicit: after building, the node for the index range [lo, hi) sits at the
+ * midpoint of that range and carries the bounding box of the whole range.
+ */
+public final class StationKdTree {
+    private final long[] ids;
+    private final double[] coords;   // x, y, z per point
+    private final double[] boxMin;   // per node, 3 values
+    private final double[] boxMax;
+    private final int size;
+
+    private StationKdTree(long[] ids, double[] coords, double[] boxMin, double[] boxMax) {
+        this.ids = ids;
+        this.coords = coords;
+        this.boxMin = boxMin;
+        this.boxMax = boxMax;
+        this.size = ids.length;
+    }
+
+    public static StationKdTree build(long[] ids, double[] latitudesRadians, double[] longitudesRadians) {
+        int n = ids.length;
+        double[] points = new double[n * 3];
+        for (int i = 0; i < n; i++) {
+            toUnitVector(latitudesRadians[i], longitudesRadians[i], points, i * 3);
+        }
+
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        double[] boxMin = new double[n * 3];
+        double[] boxMax = new double[n * 3];
+        buildRange(order, points, boxMin, boxMax, 0, n);
+
+        // Lay the points out in tree order so node index == point index
+        long[] treeIds = new long[n];
+        double[] treeCoords = new double[n * 3];
+        for (int i = 0; i < n; i++) {
+            int source = order[i];
+            treeIds[i] = ids[source];
+            System.arraycopy(points, source * 3, treeCoords, i * 3, 3);
+        }
+        return new StationKdTree(treeIds, treeCoords, boxMin, boxMax);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Best-first k-nearest-neighbour search: subtrees are expanded in order of the distance to
+     * their bounding box, and the search stops as soon as the closest unexplored box is farther
+     * than the current k-th best station. Results are ordered nearest first.
+     */
+    public List<Neighbor> nearest(double lat, double lng, int k) {
+        if (size == 0 || k <= 0) {
+            return List.of();
+        }
+        double[] query = new double[3];
+        toUnitVector(Math.toRadians(lat), Math.toRadians(lng), query, 0);
+
+        // Max-heap of the best k so far, keyed by squared chord length
+        PriorityQueue<Candidate> best = new PriorityQueue<>(k + 1, (a, b) -> Double.compare(b.key, a.key));
+        PriorityQueue<Candidate> frontier = new PriorityQueue<>((a, b) -> Double.compare(a.key, b.key));
+        frontier.add(new Candidate(0, size, boxDistanceSquared(query, (size - 1) >>> 1)));
+
+        while (!frontier.isEmpty()) {
+            Candidate range = frontier.poll();
+            if (best.size() == k && range.key >= best.peek().key) {
+                break;
+            }
+            int node = (range.lo + range.hi - 1) >>> 1;
+            double d = pointDistanceSquared(query, node);
+            if (best.size() < k) {
+                best.add(new Candidate(node, node, d));
+            } else if (d < best.peek().key) {
+                best.poll();
+                best.add(new Candidate(node, node, d));
+            }
+            pushChild(frontier, best, k, query, range.lo, node);
+            pushChild(frontier, best, k, query, node + 1, range.hi);
+        }
+
+        List<Neighbor> result = new ArrayList<>(best.size());
+        for (Candidate candidate : best) {
+            result.add(new Neighbor(ids[candidate.lo], GeoDistance.chordToKm(Math.sqrt(candidate.key))));
+        }
+        Collections.sort(result, (a, b) -> Double.compare(a.distanceKm, b.distanceKm));
+        return result;
+    }
+
+    private void pushChild(PriorityQueue<Candidate> frontier, PriorityQueue<Candidate> best, int k,
+                           double[] query, int lo, int hi) {
+        if (lo >= hi) {
+            return;
+        }
+        double bound = boxDistanceSquared(query, (lo + hi - 1) >>> 1);
+        if (best.size() < k || bound < best.peek().key) {
+            frontier.add(new Candidate(lo, hi, bound));
+        }
+    }
+
+    private double pointDistanceSquared(double[] query, int node) {
+        int base = node * 3;
+        double dx = coords[base] - query[0];
+        double dy = coords[base + 1] - query[1];
+        double dz = coords[base + 2] - query[2];
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private double boxDistanceSquared(double[] query, int node) {
+        int base = node * 3;
+        double sum = 0;
+        for (int axis = 0; axis < 3; axis++) {
+            double q = query[axis];
+            double min = boxMin[base + axis];
+            double max = boxMax[base + axis];
+            double delta = q < min ? min - q : (q > max ? q - max : 0);
+            sum += delta * delta;
+        }
+        return sum;
+    }
+
+    private static void buildRange(int[] order, double[] points, double[] boxMin, double[] boxMax, int lo, int hi) {
+        if (lo >= hi) {
+            return;
+        }
+        int node = (lo + hi - 1) >>> 1;
+        int base = node * 3;
+        for (int axis = 0; axis < 3; axis++) {
+            boxMin[base + axis] = Double.POSITIVE_INFINITY;
+            boxMax[base + axis] = Double.NEGATIVE_INFINITY;
+        }
+        for (int i = lo; i < hi; i++) {
+            int p = order[i] * 3;
+            for (int axis = 0; axis < 3; axis++) {
+                boxMin[base + axis] = Math.min(boxMin[base + axis], points[p + axis]);
+                boxMax[base + axis] = Math.max(boxMax[base + axis], points[p + axis]);
+            }
+        }
+        if (hi - lo == 1) {
+            return;
+        }
+
+        // Split on the widest axis of this range
+        int splitAxis = 0;
+        double widest = -1;
+        for (int axis = 0; axis < 3; axis++) {
+            double spread = boxMax[base + axis] - boxMin[base + axis];
+            if (spread > widest) {
+                widest = spread;
+                splitAxis = axis;
+            }
+        }
+        select(order, points, splitAxis, lo, hi - 1, node);
+        buildRange(order, points, boxMin, boxMax, lo, node);
+        buildRange(order, points, boxMin, boxMax, node + 1, hi);
+    }
+
+    // Quickselect: afterwards order[k] holds the median and the range is partitioned around it
+    private static void select(int[] order, double[] points, int axis, int left, int right, int k) {
+        while (right > left) {
+            double pivot = points[order[(left + right) >>> 1] * 3 + axis];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (points[order[i] * 3 + axis] < pivot) i++;
+                while (points[order[j] * 3 + axis] > pivot) j--;
+                if (i <= j) {
+                    int tmp = order[i];
+                    order[i] = order[j];
+                    order[j] = tmp;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private static void toUnitVector(double latRad, double lngRad, double[] out, int offset) {
+        double cosLat = Math.cos(latRad);
+        out[offset] = cosLat * Math.cos(lngRad);
+        out[offset + 1] = cosLat * Math.sin(lngRad);
+        out[offset + 2] = Math.sin(latRad);
+    }
+
+    private static final class Candidate {
+        private final int lo;
+        private final int hi;
+        private final double key;
+
+        private Candidate(int lo, int hi, double key) {
+            this.lo = lo;
+            this.hi = hi;
+            this.key = key;
+        }
+    }
+
+    public static final class Neighbor {
+        private final long stationId;
+        private final double distanceKm;
+
+        public Neighbor(long stationId, double distanceKm) {
+            this.stationId = stationId;
+            this.distanceKm = distanceKm;
+        }
+
+        public long getStationId() { return stationId; }
+        public double getDistanceKm() { return distanceKm; }
+    }
+}
@@ -0,0 +1,266 @@
+package com.evcharger.api.service;
+
+import com.evcharger.api.entity.Station;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Autocomplete index over approved station names and addresses. Tokens live in a sorted map
+ * (token -> station -> field weight) so a prefix is a sub-map range scan, and every token is
+ * also indexed by its trigrams so misspelled query words can be matched by trigram overlap.
+ * Create, update and delete patch only the tokens of the station that changed. Searches share
+ * a read lock, so concurrent autocomplete requests only wait while a station is being written.
+ */
+@Component
+public class StationSearchIndex {
+    private static final int NAME_WEIGHT = 2;
+    private static final int ADDRESS_WEIGHT = 1;
+    private static final double EXACT_SCORE = 3;
+    private static final double PREFIX_SCORE = 2;
+    private static final double MIN_SIMILARITY = 0.5;
+
+    private final TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final Map<String, Set<String>> tokensByTrigram = new HashMap<>();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void rebuild(Collection<Station> stations) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            tokensByTrigram.clear();
+            entries.clear();
+            for (Station station : stations) {
+                upsert(station);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void upsert(Station station) {
+        lock.writeLock().lock();
+        try {
+            if (station.getId() == null) {
+                return;
+            }
+            remove(station.getId());
+            if (!"Approved".equals(station.getApprovalStatus())) {
+                return;
+            }
+            Map<String, Integer> tokens = new HashMap<>();
+            for (String token : tokenize(station.getAddress())) {
+                tokens.merge(token, ADDRESS_WEIGHT, Math::max);
+            }
+            for (String token : tokenize(station.getName())) {
+                tokens.merge(token, NAME_WEIGHT, Math::max);
+            }
+            for (Map.Entry<String, Integer> token : tokens.entrySet()) {
+                Map<Long, Integer> stations = postings.get(token.getKey());
+                if (stations == null) {
+                    stations = new HashMap<>();
+                    postings.put(token.getKey(), stations);
+                    for (String gram : trigrams(token.getKey())) {
+                        tokensByTrigram.computeIfAbsent(gram, key -> new HashSet<>()).add(token.getKey());
+                    }
+                }
+                stations.put(station.getId(), token.getValue());
+            }
+            entries.put(station.getId(), new Entry(tokens.keySet(), station.getLatitude(), station.getLongitude()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long stationId) {
+        lock.writeLock().lock();
+        try {
+            Entry entry = entries.remove(stationId);
+            if (entry == null) {
+                return;
+            }
+            for (String token : entry.tokens) {
+                Map<Long, Integer> stations = postings.get(token);
+                if (stations == null) {
+                    continue;
+                }
+                stations.remove(stationId);
+                if (stations.isEmpty()) {
+                    postings.remove(token);
+                    for (String gram : trigrams(token)) {
+                        Set<String> tokens = tokensByTrigram.get(gram);
+                        if (tokens != null && tokens.remove(token) && tokens.isEmpty()) {
+                            tokensByTrigram.remove(gram);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Top {@code limit} stations matching every query word, best first. A word matches a token
+     * exactly, as a prefix, or (three letters and up) by trigram similarity; name matches weigh
+     * twice as much as address matches. With a location, nearer stations get a bonus of up to
+     * one point, so distance breaks ties between similarly relevant stations.
+     */
+    public List<Match> search(String query, Double lat, Double lng, int limit) {
+        lock.readLock().lock();
+        try {
+            List<String> words = tokenize(query);
+            if (words.isEmpty() || limit <= 0) {
+                return List.of();
+            }
+
+            Map<Long, Double> relevance = null;
+            for (String word : words) {
+                Map<Long, Double> wordScores = scoreWord(word);
+                if (relevance == null) {
+                    relevance = wordScores;
+                } else {
+                    relevance.keySet().retainAll(wordScores.keySet());
+                    for (Map.Entry<Long, Double> score : relevance.entrySet()) {
+                        score.setValue(score.getValue() + wordScores.get(score.getKey()));
+                    }
+                }
+                if (relevance.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            PriorityQueue<Match> top = new PriorityQueue<>(limit + 1, (a, b) -> Double.compare(a.score, b.score));
+            for (Map.Entry<Long, Double> candidate : relevance.entrySet()) {
+                Entry entry = entries.get(candidate.getKey());
+                Double distance = null;
+                double score = candidate.getValue();
+                if (lat != null && lng != null && entry.latitude != null && entry.longitude != null) {
+                    distance = GeoDistance.haversineKm(lat, lng, entry.latitude, entry.longitude);
+                    score += 1.0 / (1.0 + distance / 10.0);
+                }
+                top.add(new Match(candidate.getKey(), score, distance));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+            List<Match> matches = new ArrayList<>(top);
+            matches.sort((a, b) -> Double.compare(b.score, a.score));
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int tokenCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Best score per station for one query word
+    private Map<Long, Double> scoreWord(String word) {
+        Map<Long, Double> scores = new HashMap<>();
+        SortedMap<String, Map<Long, Integer>> prefixed = postings.subMap(word, word + Character.MAX_VALUE);
+        for (Map.Entry<String, Map<Long, Integer>> token : prefixed.entrySet()) {
+            double base = token.getKey().equals(word) ? EXACT_SCORE : PREFIX_SCORE;
+            addScores(scores, token.getValue(), base);
+        }
+        if (word.length() < 3) {
+            return scores;
+        }
+
+        Set<String> wordGrams = trigrams(word);
+        Map<String, Integer> shared = new HashMap<>();
+        for (String gram : wordGrams) {
+            Set<String> tokens = tokensByTrigram.get(gram);
+            if (tokens != null) {
+                for (String token : tokens) {
+                    shared.merge(token, 1, Integer::sum);
+                }
+            }
+        }
+        for (Map.Entry<String, Integer> token : shared.entrySet()) {
+            if (token.getKey().startsWith(word)) {
+                continue;
+            }
+            // Dice coefficient over padded trigrams
+            double similarity = 2.0 * token.getValue() / (wordGrams.size() + trigrams(token.getKey()).size());
+            if (similarity >= MIN_SIMILARITY) {
+                addScores(scores, postings.get(token.getKey()), PREFIX_SCORE * similarity);
+            }
+        }
+        return scores;
+    }
+
+    private static void addScores(Map<Long, Double> scores, Map<Long, Integer> stations, double base) {
+        for (Map.Entry<Long, Integer> station : stations.entrySet()) {
+            scores.merge(station.getKey(), base * station.getValue(), Math::max);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static Set<String> trigrams(String token) {
+        String padded = "$" + token + "$";
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    public static final class Match {
+        private final long stationId;
+        private final double score;
+        private final Double distanceKm;
+
+        Match(long stationId, double score, Double distanceKm) {
+            this.stationId = stationId;
+            this.score = score;
+            this.distanceKm = distanceKm;
+        }
+
+        public long getStationId() { return stationId; }
+        public double getScore() { return score; }
+        public Double getDistanceKm() { return distanceKm; }
+    }
+
+    private static final class Entry {
+        private final Set<String> tokens;
+        private final Double latitude;
+        private final Double longitude;
+
+        private Entry(Set<String> tokens, Double latitude, Double longitude) {
+            this.tokens = new HashSet<>(tokens);
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+    }
+}
@@ -1,6 +1,11 @@
 package com.evcharger.api.service;
 
+import com.evcharger.api.config.StationLocationSchemaInitializer;
+import com.evcharger.api.dto.AvailabilityBucketDto;
+import com.evcharger.api.dto.StationAvailabilityDto;
+import com.evcharger.api.dto.StationClusterDto;
 import com.evcharger.api.dto.StationDto;
+import com.evcharger.api.dto.StationFilterDto;
 import com.evcharger.api.entity.Station;
 import com.evcharger.api.repository.StationRepository;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -8,10 +13,23 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,35 +45,141 @@ public class StationService {
     @Autowired
     private com.evcharger.api.repository.UserRepository userRepository;
 
+    @Autowired
+    private StationSpatialIndex stationSpatialIndex;
+
+    @Autowired
+    private StationClusterIndex stationClusterIndex;
+
+    @Autowired
+    private StationSearchIndex stationSearchIndex;
+
+    @Autowired
+    private SlotInventory slotInventory;
+
+    @Autowired
+    private BookingCalendar bookingCalendar;
+
+    @Autowired
+    private StationLocationSchemaInitializer stationLocationSchema;
+
+    // "memory" serves nearby search from StationSpatialIndex, "database" pushes it into SQL
+    @Value("${stations.search.mode:memory}")
+    private String searchMode;
+
+    @Value("${stations.route.max-points:10000}")
+    private int maxRoutePoints;
+
+    @Value("${stations.reachability.reserve-fraction:0.1}")
+    private double reserveFraction;
+
+    @Value("${stations.reachability.detour-factor:1.3}")
+    private double detourFactor;
+
+    @Value("${stations.availability.bucket-minutes:30}")
+    private int defaultBucketMinutes;
+
+    // Read endpoints serve from this; every station write path swaps in a new snapshot
+    private final AtomicReference<StationViewSnapshot> viewSnapshot = new AtomicReference<>();
+    private final AtomicLong viewVersion = new AtomicLong();
+    private final AtomicLong fullRebuilds = new AtomicLong();
+    private final AtomicLong fullRebuildNanos = new AtomicLong();
+    private final AtomicLong incrementalUpdates = new AtomicLong();
+
+    // Compiled operating hours, keyed by the raw text so stations sharing hours share a schedule
+    private final Map<String, OperatingSchedule> schedules = new ConcurrentHashMap<>();
+
+    // Runs after DataInitializer so seeded stations are part of the first build
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadStationIndexes() {
+        List<Station> stations = stationRepository.findAllWithStationMaster();
+        rebuildViewSnapshot(stations);
+        stationSpatialIndex.rebuild(stations);
+        stationClusterIndex.rebuild(stations);
+        stationSearchIndex.rebuild(stations);
+        logger.info("Spatial index loaded with {} searchable stations", stationSpatialIndex.size());
+    }
+
+    public StationViewSnapshot rebuildViewSnapshot() {
+        return rebuildViewSnapshot(stationRepository.findAllWithStationMaster());
+    }
+
+    private StationViewSnapshot rebuildViewSnapshot(List<Station> entities) {
+        long start = System.nanoTime();
+        List<StationDto> stations = entities.stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+        StationViewSnapshot snapshot = StationViewSnapshot.build(viewVersion.incrementAndGet(), stations, start);
+        viewSnapshot.set(snapshot);
+        fullRebuilds.incrementAndGet();
+        fullRebuildNanos.addAndGet(snapshot.getBuildNanos());
+        logger.info("Station view snapshot v{} built with {} stations in {} ms",
+                snapshot.getVersion(), snapshot.size(), snapshot.getBuildNanos() / 1_000_000.0);
+        return snapshot;
+    }
+
+    public StationViewSnapshot getViewSnapshot() {
+        StationViewSnapshot snapshot = viewSnapshot.get();
+        return snapshot != null ? snapshot : rebuildViewSnapshot();
+    }
+
+    public Map<String, Object> getViewSnapshotMetrics() {
+        StationViewSnapshot snapshot = getViewSnapshot();
+        long rebuilds = fullRebuilds.get();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("version", snapshot.getVersion());
+        metrics.put("stations", snapshot.size());
+        metrics.put("approvedStations", snapshot.getApproved().size());
+        metrics.put("builtAt", snapshot.getBuiltAtMillis());
+        metrics.put("lastBuildMillis", snapshot.getBuildNanos() / 1_000_000.0);
+        metrics.put("lastBuildWasFull", snapshot.isFullRebuild());
+        metrics.put("fullRebuilds", rebuilds);
+        metrics.put("averageFullRebuildMillis", rebuilds > 0 ? fullRebuildNanos.get() / 1_000_000.0 / rebuilds : 0.0);
+        metrics.put("incrementalUpdates", incrementalUpdates.get());
+        return metrics;
+    }
+
     public List<StationDto> getAllStations() {
-        try {
-            List<Station> stations = stationRepository.findAll(); // Use findAll instead of findAllWithStationMaster
-            return stations.stream()
-                    .map(this::convertToDto)
-                    .collect(Collectors.toList());
-        } catch (Exception e) {
-            logger.error("Error fetching all stations: {}", e.getMessage());
-            return List.of(); // Return empty list on error
+        return getViewSnapshot().getAll();
+    }
+
+    public List<StationDto> getAllStations(StationFilterDto filter) {
+        StationViewSnapshot views = getViewSnapshot();
+        if (filter == null || filter.isEmpty()) {
+            return views.getAll();
+        }
+        BitSet selected = views.getFacets().select(filter, false);
+        List<StationDto> stations = new ArrayList<>(selected.cardinality());
+        for (int ordinal = selected.nextSetBit(0); ordinal >= 0; ordinal = selected.nextSetBit(ordinal + 1)) {
+            stations.add(views.getAll().get(ordinal));
+        }
+        return stations;
+    }
+
+    public Map<String, Object> getFacetCounts(List<StationDto> stations) {
+        StationFacetIndex facets = getViewSnapshot().getFacets();
+        BitSet result = new BitSet(facets.size());
+        for (StationDto station : stations) {
+            int ordinal = facets.ordinalOf(station.getId());
+            if (ordinal >= 0) {
+                result.set(ordinal);
+            }
         }
+        return facets.facetCounts(result);
     }
 
     public List<StationDto> getApprovedStations() {
-        List<Station> stations = stationRepository.findAllWithStationMaster();
-        return stations.stream()
-                .filter(station -> "Approved".equals(station.getApprovalStatus()))
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return getViewSnapshot().getApproved();
     }
 
     public Optional<StationDto> getStationById(Long id) {
-        return stationRepository.findById(id)
-                .map(this::convertToDto);
+        return Optional.ofNullable(getViewSnapshot().get(id));
     }
 
     public StationDto createStation(StationDto stationDto) {
         Station station = convertToEntity(stationDto);
         Station savedStation = stationRepository.save(station);
-        return convertToDto(savedStation);
+        return stationChanged(savedStation);
     }
 
     public Optional<StationDto> updateStation(Long id, StationDto stationDto) {
@@ -63,51 +187,290 @@ public class StationService {
                 .map(existingStation -> {
                     updateStationFromDto(existingStation, stationDto);
                     Station savedStation = stationRepository.save(existingStation);
-                    return convertToDto(savedStation);
+                    return stationChanged(savedStation);
                 });
     }
 
     public boolean deleteStation(Long id) {
         if (stationRepository.existsById(id)) {
             stationRepository.deleteById(id);
+            stationSpatialIndex.remove(id);
+            stationClusterIndex.remove(id);
+            stationSearchIndex.remove(id);
+            slotInventory.remove(id);
+            bookingCalendar.removeStation(id);
+            long start = System.nanoTime();
+            long version = viewVersion.incrementAndGet();
+            viewSnapshot.updateAndGet(current -> (current != null ? current : StationViewSnapshot.empty())
+                    .without(version, id, start));
+            incrementalUpdates.incrementAndGet();
             return true;
         }
         return false;
     }
 
+    // One snapshot swap per inventory flush, however many bookings went into it
+    @EventListener
+    public void onSlotAvailabilityChanged(SlotAvailabilityChangedEvent event) {
+        if (viewSnapshot.get() == null) {
+            // Not built yet; the first build reads the counters directly
+            return;
+        }
+        for (Map.Entry<Long, Integer> change : event.getAvailableSlots().entrySet()) {
+            stationSpatialIndex.updateAvailableSlots(change.getKey(), change.getValue());
+            stationClusterIndex.updateAvailableSlots(change.getKey(), change.getValue());
+        }
+        // Patched from whichever snapshot wins the swap, so a concurrent station edit is kept
+        long start = System.nanoTime();
+        long version = viewVersion.incrementAndGet();
+        viewSnapshot.updateAndGet(snapshot -> snapshot != null
+                ? snapshot.withSlotCounts(version, event.getAvailableSlots(), start)
+                : null);
+        incrementalUpdates.incrementAndGet();
+    }
+
+    private StationDto stationChanged(Station savedStation) {
+        savedStation.setAvailableSlots(slotInventory.track(savedStation));
+        stationSpatialIndex.upsert(savedStation);
+        stationClusterIndex.upsert(savedStation);
+        stationSearchIndex.upsert(savedStation);
+        StationDto dto = convertToDto(savedStation);
+        publishView(dto);
+        return dto;
+    }
+
+    private void publishView(StationDto dto) {
+        long start = System.nanoTime();
+        long version = viewVersion.incrementAndGet();
+        viewSnapshot.updateAndGet(current -> (current != null ? current : StationViewSnapshot.empty())
+                .with(version, dto, start));
+        incrementalUpdates.incrementAndGet();
+    }
+
     public List<StationDto> getNearbyStations(double lat, double lng, double range) {
-        List<Station> availableStations = stationRepository.findByStatus("Available");
-        
-        return availableStations.stream()
-                .filter(station -> "Approved".equals(station.getApprovalStatus())) // Only approved stations
-                .filter(station -> {
-                    double distance = calculateDistance(lat, lng, station.getLatitude(), station.getLongitude());
-                    return distance <= range;
-                })
-                .sorted((s1, s2) -> {
-                    double dist1 = calculateDistance(lat, lng, s1.getLatitude(), s1.getLongitude());
-                    double dist2 = calculateDistance(lat, lng, s2.getLatitude(), s2.getLongitude());
-                    int distanceComparison = Double.compare(dist1, dist2);
-                    if (distanceComparison != 0) return distanceComparison;
-                    return Integer.compare(s2.getAvailableSlots(), s1.getAvailableSlots());
-                })
-                .map(station -> {
-                    StationDto dto = convertToDto(station);
-                    dto.setDistance(calculateDistance(lat, lng, station.getLatitude(), station.getLongitude()));
-                    return dto;
-                })
+        return getNearbyStations(lat, lng, range, null);
+    }
+
+    public List<StationDto> getNearbyStations(double lat, double lng, double range, StationFilterDto filter) {
+        if ("database".equalsIgnoreCase(searchMode)) {
+            return applyFilter(getNearbyStationsFromDatabase(lat, lng, range), filter);
+        }
+        if (!stationSpatialIndex.isLoaded()) {
+            loadStationIndexes();
+        }
+
+        // Distances come from the primitive snapshot, station views from the DTO snapshot
+        StationSpatialIndex.NearbyResult result = stationSpatialIndex.searchWithin(lat, lng, range);
+        StationViewSnapshot views = getViewSnapshot();
+        StationFacetIndex facets = views.getFacets();
+        BitSet selected = filter != null && !filter.isEmpty() ? facets.select(filter, true) : null;
+        List<StationDto> nearby = new ArrayList<>(result.size());
+        for (int i = 0; i < result.size(); i++) {
+            if (selected != null && !isSelected(facets, selected, result.stationIdAt(i))) {
+                continue;
+            }
+            StationDto view = views.get(result.stationIdAt(i));
+            if (view == null) {
+                continue;
+            }
+            StationDto dto = new StationDto(view);
+            dto.setDistance(result.distanceAt(i));
+            nearby.add(dto);
+        }
+        return nearby;
+    }
+
+    /**
+     * Straight-line radius a vehicle can cover: the charge above the reserve, scaled by the
+     * vehicle's range and divided by the road detour factor.
+     */
+    public double getEffectiveRadiusKm(double rangeKm, double stateOfChargePercent) {
+        double usableFraction = Math.max(0, stateOfChargePercent / 100.0 - reserveFraction);
+        return rangeKm * usableFraction / detourFactor;
+    }
+
+    public List<StationDto> getReachableStations(double lat, double lng, double radiusKm, StationFilterDto filter) {
+        if (!stationSpatialIndex.isLoaded()) {
+            loadStationIndexes();
+        }
+
+        // Pruned by the spatial index first, then by the facet bitmaps (compatible connectors etc.)
+        StationSpatialIndex.NearbyResult result = stationSpatialIndex.searchWithin(lat, lng, radiusKm);
+        StationViewSnapshot views = getViewSnapshot();
+        StationFacetIndex facets = views.getFacets();
+        BitSet selected = facets.select(filter, true);
+        List<StationDto> reachable = new ArrayList<>();
+        for (int i = 0; i < result.size(); i++) {
+            if (!isSelected(facets, selected, result.stationIdAt(i))) {
+                continue;
+            }
+            StationDto view = views.get(result.stationIdAt(i));
+            if (view == null) {
+                continue;
+            }
+            StationDto dto = new StationDto(view);
+            dto.setDistance(result.distanceAt(i));
+            reachable.add(dto);
+        }
+        return reachable;
+    }
+
+    private List<StationDto> applyFilter(List<StationDto> stations, StationFilterDto filter) {
+        if (filter == null || filter.isEmpty()) {
+            return stations;
+        }
+        StationFacetIndex facets = getViewSnapshot().getFacets();
+        BitSet selected = facets.select(filter, false);
+        return stations.stream()
+                .filter(station -> isSelected(facets, selected, station.getId()))
                 .collect(Collectors.toList());
     }
 
-    private double calculateDistance(double lat1, double lng1, double lat2, double lng2) {
-        final double R = 6371; // Earth's radius in kilometers
-        double dLat = Math.toRadians(lat2 - lat1);
-        double dLng = Math.toRadians(lng2 - lng1);
-        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
-                Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) *
-                Math.sin(dLng / 2) * Math.sin(dLng / 2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        return R * c;
+    private boolean isSelected(StationFacetIndex facets, BitSet selected, long stationId) {
+        int ordinal = facets.ordinalOf(stationId);
+        return ordinal >= 0 && selected.get(ordinal);
+    }
+
+    private List<StationDto> getNearbyStationsFromDatabase(double lat, double lng, double range) {
+        double[] box = StationSpatialIndex.boundingBox(lat, lng, range);
+        List<Station> stations;
+        if (stationLocationSchema.isSpatialColumnAvailable()) {
+            // Filtered and ordered by the database using the SPATIAL index
+            stations = stationRepository.findSearchableWithinRadius(lat, lng, range * 1000, box[0], box[1], box[2], box[3]);
+        } else {
+            stations = stationRepository.findSearchableInBoundingBox(box[0], box[1], box[2], box[3]);
+        }
+
+        List<StationDto> nearby = new ArrayList<>(stations.size());
+        for (Station station : stations) {
+            double distance = GeoDistance.haversineKm(lat, lng, station.getLatitude(), station.getLongitude());
+            if (distance <= range) {
+                StationDto dto = convertToDto(station);
+                dto.setDistance(distance);
+                nearby.add(dto);
+            }
+        }
+        if (!stationLocationSchema.isSpatialColumnAvailable()) {
+            nearby.sort(Comparator.comparingDouble(StationDto::getDistance)
+                    .thenComparing(StationDto::getAvailableSlots, Comparator.nullsLast(Comparator.reverseOrder())));
+        }
+        return nearby;
+    }
+
+    public List<StationDto> getStationsAlongRoute(String encodedPolyline, double corridorKm) {
+        RoutePolyline route = RoutePolyline.decode(encodedPolyline, maxRoutePoints);
+        if (!stationSpatialIndex.isLoaded()) {
+            loadStationIndexes();
+        }
+
+        StationSpatialIndex.RouteResult result = stationSpatialIndex.searchAlongRoute(route, corridorKm);
+        StationViewSnapshot views = getViewSnapshot();
+        List<StationDto> stations = new ArrayList<>(result.size());
+        for (int i = 0; i < result.size(); i++) {
+            StationDto view = views.get(result.stationIdAt(i));
+            if (view == null) {
+                continue;
+            }
+            StationDto dto = new StationDto(view);
+            dto.setDistance(result.distanceFromRouteAt(i));
+            dto.setDistanceAlongRoute(result.distanceAlongRouteAt(i));
+            stations.add(dto);
+        }
+        return stations;
+    }
+
+    public List<StationDto> searchStations(String query, Double lat, Double lng, int limit) {
+        if (!stationSpatialIndex.isLoaded()) {
+            loadStationIndexes();
+        }
+        StationViewSnapshot views = getViewSnapshot();
+        List<StationDto> stations = new ArrayList<>();
+        for (StationSearchIndex.Match match : stationSearchIndex.search(query, lat, lng, limit)) {
+            StationDto view = views.get(match.getStationId());
+            if (view == null) {
+                continue;
+            }
+            StationDto dto = new StationDto(view);
+            dto.setDistance(match.getDistanceKm());
+            stations.add(dto);
+        }
+        return stations;
+    }
+
+    public List<StationClusterDto> getClusters(double minLat, double minLng, double maxLat, double maxLng, int zoom) {
+        if (!stationSpatialIndex.isLoaded()) {
+            loadStationIndexes();
+        }
+        return stationClusterIndex.clusters(minLat, minLng, maxLat, maxLng, StationClusterIndex.levelForZoom(zoom));
+    }
+
+    /**
+     * Free slots in each time bucket of the day while the station is open. Buckets start at
+     * every opening time and are cut short at closing time; a bucket's free count is the
+     * station's total minus the peak of overlapping active bookings within it.
+     */
+    public Optional<StationAvailabilityDto> getAvailability(Long stationId, LocalDate date, Integer bucketMinutes) {
+        int bucket = bucketMinutes != null ? bucketMinutes : defaultBucketMinutes;
+        if (bucket < 5 || bucket > OperatingSchedule.MINUTES_PER_DAY) {
+            throw new RuntimeException("bucketMinutes must be between 5 and " + OperatingSchedule.MINUTES_PER_DAY);
+        }
+        StationDto station = getViewSnapshot().get(stationId);
+        if (station == null) {
+            return Optional.empty();
+        }
+        OperatingSchedule schedule = station.getOperatingHours() != null
+                ? schedules.computeIfAbsent(station.getOperatingHours(), OperatingSchedule::parse)
+                : OperatingSchedule.parse(null);
+
+        List<LocalDateTime> starts = new ArrayList<>();
+        List<LocalDateTime> ends = new ArrayList<>();
+        LocalDateTime midnight = date.atStartOfDay();
+        int[] open = schedule.openMinutes(date.getDayOfWeek());
+        for (int i = 0; i < open.length; i += 2) {
+            for (int minute = open[i]; minute < open[i + 1]; minute += bucket) {
+                starts.add(midnight.plusMinutes(minute));
+                ends.add(midnight.plusMinutes(Math.min(minute + bucket, open[i + 1])));
+            }
+        }
+
+        Integer totalSlots = slotInventory.getTotalSlots(stationId);
+        int capacity = totalSlots != null ? totalSlots : (station.getTotalSlots() != null ? station.getTotalSlots() : 0);
+        int[] peaks = bookingCalendar.peakOccupancy(stationId,
+                starts.toArray(new LocalDateTime[0]), ends.toArray(new LocalDateTime[0]));
+        List<AvailabilityBucketDto> buckets = new ArrayList<>(peaks.length);
+        for (int i = 0; i < peaks.length; i++) {
+            buckets.add(new AvailabilityBucketDto(starts.get(i), ends.get(i), Math.max(0, capacity - peaks[i])));
+        }
+
+        StationAvailabilityDto availability = new StationAvailabilityDto();
+        availability.setStationId(stationId);
+        availability.setDate(date);
+        availability.setBucketMinutes(bucket);
+        availability.setTotalSlots(capacity);
+        availability.setOperatingHours(station.getOperatingHours());
+        availability.setOperatingHoursRecognized(schedule.isRecognized());
+        availability.setBuckets(buckets);
+        return Optional.of(availability);
+    }
+
+    public List<StationDto> getNearestStations(double lat, double lng, int k) {
+        if (!stationSpatialIndex.isLoaded()) {
+            loadStationIndexes();
+        }
+
+        List<StationKdTree.Neighbor> neighbors = stationSpatialIndex.nearest(lat, lng, k);
+        StationViewSnapshot views = getViewSnapshot();
+        List<StationDto> nearest = new ArrayList<>(neighbors.size());
+        for (StationKdTree.Neighbor neighbor : neighbors) {
+            StationDto view = views.get(neighbor.getStationId());
+            if (view == null) {
+                continue;
+            }
+            StationDto dto = new StationDto(view);
+            dto.setDistance(neighbor.getDistanceKm());
+            nearest.add(dto);
+        }
+        return nearest;
     }
 
     // Station Master specific methods
@@ -123,7 +486,7 @@ public class StationService {
         station.setStationMaster(userRepository.findById(stationMasterId).orElse(null));
         station.setApprovalStatus("Pending"); // Set default approval status
         Station savedStation = stationRepository.save(station);
-        return convertToDto(savedStation);
+        return stationChanged(savedStation);
     }
 
     public StationDto updateStationForMaster(Long stationId, StationDto stationDto, Long stationMasterId) {
@@ -137,7 +500,7 @@ public class StationService {
         updateStationFromDto(station, stationDto);
         station.setApprovalStatus("Pending"); // Reset to pending after edit
         Station savedStation = stationRepository.save(station);
-        return convertToDto(savedStation);
+        return stationChanged(savedStation);
     }
 
     public void updateStationStatus(Long stationId, String status, Long stationMasterId) {
@@ -149,7 +512,7 @@ public class StationService {
         }
         
         station.setStatus(status);
-        stationRepository.save(station);
+        stationChanged(stationRepository.save(station));
     }
 
     public void updateApprovalStatus(Long stationId, String approvalStatus) {
@@ -157,13 +520,12 @@ public class StationService {
                 .orElseThrow(() -> new RuntimeException("Station not found"));
         
         station.setApprovalStatus(approvalStatus);
-        stationRepository.save(station);
+        stationChanged(stationRepository.save(station));
     }
 
     public List<StationDto> getStationsByApprovalStatus(String approvalStatus) {
-        List<Station> stations = stationRepository.findByApprovalStatus(approvalStatus);
-        return stations.stream()
-                .map(this::convertToDto)
+        return getViewSnapshot().getAll().stream()
+                .filter(station -> approvalStatus.equals(station.getApprovalStatus()))
                 .collect(Collectors.toList());
     }
 
@@ -172,7 +534,7 @@ public class StationService {
                 .orElseThrow(() -> new RuntimeException("Station not found"));
         
         station.setApprovalStatus(approvalStatus);
-        stationRepository.save(station);
+        stationChanged(stationRepository.save(station));
     }
 
     private StationDto convertToDto(Station station) {
@@ -189,7 +551,8 @@ public class StationService {
         dto.setOperatingHours(station.getOperatingHours());
         dto.setStatus(station.getStatus());
         dto.setTotalSlots(station.getTotalSlots());
-        dto.setAvailableSlots(station.getAvailableSlots());
+        Integer availableSlots = slotInventory.getAvailableSlots(station.getId());
+        dto.setAvailableSlots(availableSlots != null ? availableSlots : station.getAvailableSlots());
         dto.setApprovalStatus(station.getApprovalStatus());
         dto.setOwnerName(station.getStationMaster() != null ? station.getStationMaster().getName() : null);
         return dto;
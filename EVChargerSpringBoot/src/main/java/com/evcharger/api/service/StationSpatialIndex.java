@@ -0,0 +1,428 @@
+package com.evcharger.api.service;
+
+import com.evcharger.api.entity.Station;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory spatial index over the stations that can show up in a nearby search (approved and
+ * "Available").
+ *
+ * Writes only touch the {@code entries} map. Reads work on an immutable snapshot built from it:
+ * a {@link StationCoordinateSnapshot} with the coordinates as primitive arrays, a uniform
+ * lat/lng grid mapping each cell to the ordinals inside it, and a lazily built
+ * {@link StationKdTree} for k-nearest queries. Any change drops the snapshot and the next read
+ * rebuilds it, which keeps the read path lock-free and allocation-light.
+ */
+@Component
+public class StationSpatialIndex {
+    private static final double KM_PER_DEGREE_LAT = 111.32;
+
+    private final double cellSizeDegrees;
+    private final int columnCount;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final ThreadLocal<ScanBuffer> scanBuffers = ThreadLocal.withInitial(ScanBuffer::new);
+
+    private volatile boolean loaded = false;
+    private volatile Snapshot snapshot;
+
+    public StationSpatialIndex(@Value("${stations.index.cell-size-degrees:0.1}") double cellSizeDegrees) {
+        this.cellSizeDegrees = cellSizeDegrees;
+        this.columnCount = (int) Math.ceil(360.0 / cellSizeDegrees);
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public synchronized void rebuild(Collection<Station> stations) {
+        entries.clear();
+        for (Station station : stations) {
+            if (station.getId() != null && isSearchable(station)) {
+                entries.put(station.getId(), new Entry(station));
+            }
+        }
+        snapshot = null;
+        loaded = true;
+    }
+
+    public synchronized void upsert(Station station) {
+        if (station.getId() == null) {
+            return;
+        }
+        if (isSearchable(station)) {
+            entries.put(station.getId(), new Entry(station));
+        } else {
+            entries.remove(station.getId());
+        }
+        snapshot = null;
+    }
+
+    public synchronized void remove(Long stationId) {
+        if (entries.remove(stationId) != null) {
+            snapshot = null;
+        }
+    }
+
+    // Slot counts only affect ordering, so they are patched in place instead of dropping the snapshot
+    public synchronized void updateAvailableSlots(Long stationId, int availableSlots) {
+        Entry entry = entries.get(stationId);
+        if (entry == null) {
+            return;
+        }
+        entries.put(stationId, new Entry(entry.latitude, entry.longitude, availableSlots));
+        Snapshot current = snapshot;
+        if (current != null) {
+            current.coordinates.setAvailableSlots(stationId, availableSlots);
+        }
+    }
+
+    /**
+     * Stations within {@code rangeKm}, nearest first (ties: most available slots first). Only
+     * the grid cells overlapping the search circle are scanned, and the scan reuses per-thread
+     * buffers, so the only allocations are the two result arrays.
+     */
+    public NearbyResult searchWithin(double lat, double lng, double rangeKm) {
+        Snapshot current = currentSnapshot();
+        StationCoordinateSnapshot coordinates = current.coordinates;
+        ScanBuffer buffer = scanBuffers.get();
+        buffer.ensureCapacity(coordinates.size());
+
+        int candidateCount = collectCandidates(current, lat, lng, rangeKm, buffer.candidates);
+        int hitCount = coordinates.scan(lat, lng, rangeKm, buffer.candidates, candidateCount,
+                buffer.hits, buffer.distances);
+        coordinates.sortHits(buffer.hits, buffer.distances, hitCount);
+
+        long[] stationIds = new long[hitCount];
+        double[] distances = new double[hitCount];
+        for (int i = 0; i < hitCount; i++) {
+            stationIds[i] = coordinates.idAt(buffer.hits[i]);
+            distances[i] = buffer.distances[i];
+        }
+        return new NearbyResult(stationIds, distances);
+    }
+
+    public List<StationKdTree.Neighbor> nearest(double lat, double lng, int k) {
+        Snapshot current = currentSnapshot();
+        StationKdTree tree = current.kdTree;
+        if (tree == null) {
+            StationCoordinateSnapshot coordinates = current.coordinates;
+            tree = StationKdTree.build(coordinates.ids(), coordinates.latitudesRadians(), coordinates.longitudesRadians());
+            current.kdTree = tree;
+        }
+        return tree.nearest(lat, lng, k);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private int collectCandidates(Snapshot current, double lat, double lng, double rangeKm, int[] candidates) {
+        double[] box = boundingBox(lat, lng, rangeKm);
+        int minRow = cellRow(box[0]);
+        int maxRow = cellRow(box[1]);
+        long rows = (long) maxRow - minRow + 1;
+        boolean allLongitudes = box[2] <= -180.0 && box[3] >= 180.0;
+        long columns = allLongitudes ? columnCount : (long) ((box[3] - box[2]) / cellSizeDegrees) + 2;
+
+        // Wide searches (or searches near the poles) would probe more cells than there are stations
+        int size = current.coordinates.size();
+        if (rows * columns > size) {
+            for (int i = 0; i < size; i++) {
+                candidates[i] = i;
+            }
+            return size;
+        }
+
+        int count = 0;
+        for (long cell : occupiedCells(current, box)) {
+            int[] members = current.cells.get(cell);
+            System.arraycopy(members, 0, candidates, count, members.length);
+            count += members.length;
+        }
+        return count;
+    }
+
+    /**
+     * Stations within {@code corridorKm} of the route, ordered by how far along the route their
+     * closest point is. Each segment is bucketed into the occupied grid cells its buffered
+     * bounding box touches, so a station is only measured against the few segments passing
+     * near its own cell instead of against the whole route.
+     */
+    public RouteResult searchAlongRoute(RoutePolyline route, double corridorKm) {
+        Snapshot current = currentSnapshot();
+        StationCoordinateSnapshot coordinates = current.coordinates;
+        int points = route.size();
+        double[] routeLat = new double[points];
+        double[] routeLng = new double[points];
+        for (int i = 0; i < points; i++) {
+            routeLat[i] = Math.toRadians(route.latitudeAt(i));
+            routeLng[i] = Math.toRadians(route.longitudeAt(i));
+        }
+
+        Map<Long, List<Integer>> segmentsByCell = new HashMap<>();
+        for (int segment = 0; segment < points - 1; segment++) {
+            double[] box = segmentBoundingBox(route, segment, corridorKm);
+            for (long cell : occupiedCells(current, box)) {
+                segmentsByCell.computeIfAbsent(cell, key -> new ArrayList<>()).add(segment);
+            }
+        }
+
+        List<RouteHit> hits = new ArrayList<>();
+        for (Map.Entry<Long, List<Integer>> cell : segmentsByCell.entrySet()) {
+            for (int ordinal : current.cells.get(cell.getKey())) {
+                double pLat = coordinates.latitudeRadiansAt(ordinal);
+                double pLng = coordinates.longitudeRadiansAt(ordinal);
+                double kx = GeoDistance.EARTH_RADIUS_KM * Math.cos(pLat);
+                double best = Double.POSITIVE_INFINITY;
+                double bestAlong = 0;
+                for (int segment : cell.getValue()) {
+                    // Local planar projection centred on the station, in km
+                    double ax = wrap(routeLng[segment] - pLng) * kx;
+                    double ay = (routeLat[segment] - pLat) * GeoDistance.EARTH_RADIUS_KM;
+                    double dx = wrap(routeLng[segment + 1] - pLng) * kx - ax;
+                    double dy = (routeLat[segment + 1] - pLat) * GeoDistance.EARTH_RADIUS_KM - ay;
+                    double lengthSquared = dx * dx + dy * dy;
+                    double t = lengthSquared > 0 ? Math.max(0, Math.min(1, -(ax * dx + ay * dy) / lengthSquared)) : 0;
+                    double cx = ax + t * dx;
+                    double cy = ay + t * dy;
+                    double distance = Math.sqrt(cx * cx + cy * cy);
+                    if (distance < best) {
+                        best = distance;
+                        bestAlong = route.cumulativeKmAt(segment)
+                                + t * (route.cumulativeKmAt(segment + 1) - route.cumulativeKmAt(segment));
+                    }
+                }
+                if (best <= corridorKm) {
+                    hits.add(new RouteHit(coordinates.idAt(ordinal), best, bestAlong));
+                }
+            }
+        }
+        hits.sort((a, b) -> Double.compare(a.distanceAlongRoute, b.distanceAlongRoute));
+        return new RouteResult(hits);
+    }
+
+    // Keys of the occupied cells overlapping the box, probing the box's cells or scanning the occupied ones, whichever is fewer
+    private List<Long> occupiedCells(Snapshot current, double[] box) {
+        int minRow = cellRow(box[0]);
+        int maxRow = cellRow(box[1]);
+        boolean allLongitudes = box[2] <= -180.0 && box[3] >= 180.0;
+        int minColumn = rawColumn(box[2]);
+        int maxColumn = rawColumn(box[3]);
+        if (allLongitudes || maxColumn - minColumn >= columnCount) {
+            maxColumn = minColumn + columnCount - 1;
+        }
+
+        List<Long> cells = new ArrayList<>();
+        long probes = ((long) maxRow - minRow + 1) * ((long) maxColumn - minColumn + 1);
+        if (probes > current.cells.size()) {
+            for (long cell : current.cells.keySet()) {
+                int row = (int) (cell >> 32);
+                int column = (int) cell;
+                if (row >= minRow && row <= maxRow
+                        && ((column >= minColumn && column <= maxColumn) || column + columnCount <= maxColumn)) {
+                    cells.add(cell);
+                }
+            }
+            return cells;
+        }
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                long cell = cellKey(row, Math.floorMod(column, columnCount));
+                if (current.cells.containsKey(cell)) {
+                    cells.add(cell);
+                }
+            }
+        }
+        return cells;
+    }
+
+    private Snapshot currentSnapshot() {
+        Snapshot current = snapshot;
+        return current != null ? current : buildSnapshot();
+    }
+
+    private synchronized Snapshot buildSnapshot() {
+        if (snapshot != null) {
+            return snapshot;
+        }
+        int n = entries.size();
+        long[] ids = new long[n];
+        double[] latitudes = new double[n];
+        double[] longitudes = new double[n];
+        int[] slots = new int[n];
+        int i = 0;
+        for (Map.Entry<Long, Entry> entry : entries.entrySet()) {
+            ids[i] = entry.getKey();
+            latitudes[i] = entry.getValue().latitude;
+            longitudes[i] = entry.getValue().longitude;
+            slots[i] = entry.getValue().availableSlots;
+            i++;
+        }
+
+        Map<Long, List<Integer>> members = new HashMap<>();
+        for (int ordinal = 0; ordinal < n; ordinal++) {
+            long cell = cellKey(cellRow(latitudes[ordinal]), Math.floorMod(rawColumn(longitudes[ordinal]), columnCount));
+            members.computeIfAbsent(cell, key -> new ArrayList<>()).add(ordinal);
+        }
+        Map<Long, int[]> cells = new HashMap<>(members.size() * 2);
+        for (Map.Entry<Long, List<Integer>> cell : members.entrySet()) {
+            cells.put(cell.getKey(), cell.getValue().stream().mapToInt(Integer::intValue).toArray());
+        }
+
+        snapshot = new Snapshot(new StationCoordinateSnapshot(ids, latitudes, longitudes, slots), cells);
+        return snapshot;
+    }
+
+    /**
+     * Bounding box of the search circle as {minLat, maxLat, minLng, maxLng}, clamped to valid
+     * coordinates. When the box would cross the antimeridian it spans every longitude.
+     */
+    static double[] boundingBox(double lat, double lng, double rangeKm) {
+        double latDelta = rangeKm / KM_PER_DEGREE_LAT;
+        double cosLat = Math.cos(Math.toRadians(Math.min(89.0, Math.abs(lat) + latDelta)));
+        double lngDelta = cosLat > 0 ? rangeKm / (KM_PER_DEGREE_LAT * cosLat) : 180.0;
+        double minLng = lng - lngDelta;
+        double maxLng = lng + lngDelta;
+        if (minLng < -180.0 || maxLng > 180.0) {
+            minLng = -180.0;
+            maxLng = 180.0;
+        }
+        return new double[] {Math.max(-90.0, lat - latDelta), Math.min(90.0, lat + latDelta), minLng, maxLng};
+    }
+
+    private static double[] segmentBoundingBox(RoutePolyline route, int segment, double corridorKm) {
+        double lat1 = route.latitudeAt(segment);
+        double lat2 = route.latitudeAt(segment + 1);
+        double lng1 = route.longitudeAt(segment);
+        double lng2 = route.longitudeAt(segment + 1);
+        double latDelta = corridorKm / KM_PER_DEGREE_LAT;
+        double minLat = Math.max(-90.0, Math.min(lat1, lat2) - latDelta);
+        double maxLat = Math.min(90.0, Math.max(lat1, lat2) + latDelta);
+        double cosLat = Math.cos(Math.toRadians(Math.min(89.0, Math.max(Math.abs(minLat), Math.abs(maxLat)))));
+        double lngDelta = corridorKm / (KM_PER_DEGREE_LAT * cosLat);
+        double minLng = Math.min(lng1, lng2) - lngDelta;
+        double maxLng = Math.max(lng1, lng2) + lngDelta;
+        if (Math.abs(lng1 - lng2) > 180.0 || minLng < -180.0 || maxLng > 180.0) {
+            minLng = -180.0;
+            maxLng = 180.0;
+        }
+        return new double[] {minLat, maxLat, minLng, maxLng};
+    }
+
+    private static double wrap(double deltaRadians) {
+        if (deltaRadians > Math.PI) {
+            return deltaRadians - 2 * Math.PI;
+        }
+        return deltaRadians < -Math.PI ? deltaRadians + 2 * Math.PI : deltaRadians;
+    }
+
+    static boolean isSearchable(Station station) {
+        return "Approved".equals(station.getApprovalStatus())
+                && "Available".equals(station.getStatus())
+                && station.getLatitude() != null
+                && station.getLongitude() != null;
+    }
+
+    private int cellRow(double lat) {
+        return (int) Math.floor((lat + 90.0) / cellSizeDegrees);
+    }
+
+    private int rawColumn(double lng) {
+        return (int) Math.floor((lng + 180.0) / cellSizeDegrees);
+    }
+
+    private static long cellKey(int row, int column) {
+        return ((long) row << 32) | (column & 0xffffffffL);
+    }
+
+    public static final class NearbyResult {
+        private final long[] stationIds;
+        private final double[] distances;
+
+        NearbyResult(long[] stationIds, double[] distances) {
+            this.stationIds = stationIds;
+            this.distances = distances;
+        }
+
+        public int size() { return stationIds.length; }
+        public long stationIdAt(int i) { return stationIds[i]; }
+        public double distanceAt(int i) { return distances[i]; }
+    }
+
+    public static final class RouteResult {
+        private final List<RouteHit> hits;
+
+        RouteResult(List<RouteHit> hits) {
+            this.hits = hits;
+        }
+
+        public int size() { return hits.size(); }
+        public long stationIdAt(int i) { return hits.get(i).stationId; }
+        public double distanceFromRouteAt(int i) { return hits.get(i).distanceFromRoute; }
+        public double distanceAlongRouteAt(int i) { return hits.get(i).distanceAlongRoute; }
+    }
+
+    private static final class RouteHit {
+        private final long stationId;
+        private final double distanceFromRoute;
+        private final double distanceAlongRoute;
+
+        private RouteHit(long stationId, double distanceFromRoute, double distanceAlongRoute) {
+            this.stationId = stationId;
+            this.distanceFromRoute = distanceFromRoute;
+            this.distanceAlongRoute = distanceAlongRoute;
+        }
+    }
+
+    private static final class Snapshot {
+        private final StationCoordinateSnapshot coordinates;
+        private final Map<Long, int[]> cells;
+        private volatile StationKdTree kdTree;
+
+        private Snapshot(StationCoordinateSnapshot coordinates, Map<Long, int[]> cells) {
+            this.coordinates = coordinates;
+            this.cells = cells;
+        }
+    }
+
+    private static final class Entry {
+        private final double latitude;
+        private final double longitude;
+        private final int availableSlots;
+
+        private Entry(Station station) {
+            this(station.getLatitude(), station.getLongitude(),
+                    station.getAvailableSlots() != null ? station.getAvailableSlots() : 0);
+        }
+
+        private Entry(double latitude, double longitude, int availableSlots) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.availableSlots = availableSlots;
+        }
+    }
+
+    private static final class ScanBuffer {
+        private int[] candidates = new int[0];
+        private int[] hits = new int[0];
+        private double[] distances = new double[0];
+
+        private void ensureCapacity(int size) {
+            if (candidates.length < size) {
+                int capacity = Math.max(size, candidates.length * 2);
+                candidates = new int[capacity];
+                hits = new int[capacity];
+                distances = new double[capacity];
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.evcharger.api.service;
+
+import com.evcharger.api.dto.StationDto;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable, versioned set of fully built station DTOs (JSON columns already parsed). Read
+ * endpoints return these instances directly, so they must be treated as read-only; anything
+ * that needs a per-request field such as {@code distance} works on a copy.
+ *
+ * Changes never mutate a snapshot: {@link #with}, {@link #withSlotCounts} and {@link #without}
+ * return a new one that shares the unchanged DTOs.
+ */
+public final class StationViewSnapshot {
+    private final long version;
+    private final Map<Long, StationDto> byId;
+    private final List<StationDto> all;
+    private final List<StationDto> approved;
+    private final long builtAtMillis;
+    private final long buildNanos;
+    private final boolean fullRebuild;
+    private volatile StationFacetIndex facets;
+
+    private StationViewSnapshot(long version, TreeMap<Long, StationDto> byId, long buildStartNanos, boolean fullRebuild) {
+        this.version = version;
+        this.byId = Collections.unmodifiableMap(byId);
+        this.all = List.copyOf(byId.values());
+        List<StationDto> approvedStations = new ArrayList<>();
+        for (StationDto dto : all) {
+            if ("Approved".equals(dto.getApprovalStatus())) {
+                approvedStations.add(dto);
+            }
+        }
+        this.approved = Collections.unmodifiableList(approvedStations);
+        this.builtAtMillis = System.currentTimeMillis();
+        this.buildNanos = System.nanoTime() - buildStartNanos;
+        this.fullRebuild = fullRebuild;
+    }
+
+    static StationViewSnapshot empty() {
+        return new StationViewSnapshot(0, new TreeMap<>(), System.nanoTime(), true);
+    }
+
+    static StationViewSnapshot build(long version, Collection<StationDto> stations, long buildStartNanos) {
+        TreeMap<Long, StationDto> byId = new TreeMap<>();
+        for (StationDto dto : stations) {
+            byId.put(dto.getId(), dto);
+        }
+        return new StationViewSnapshot(version, byId, buildStartNanos, true);
+    }
+
+    StationViewSnapshot with(long version, StationDto station, long buildStartNanos) {
+        TreeMap<Long, StationDto> next = new TreeMap<>(byId);
+        next.put(station.getId(), station);
+        return new StationViewSnapshot(version, next, buildStartNanos, false);
+    }
+
+    /**
+     * Copies of the listed stations with new available slot counts; stations not in this snapshot
+     * are skipped, and if none is left this snapshot is returned. The station set and order are
+     * unchanged and no facet reads slot counts, so a facet index already built is kept.
+     */
+    StationViewSnapshot withSlotCounts(long version, Map<Long, Integer> availableSlots, long buildStartNanos) {
+        TreeMap<Long, StationDto> next = new TreeMap<>(byId);
+        boolean changed = false;
+        for (Map.Entry<Long, Integer> change : availableSlots.entrySet()) {
+            StationDto existing = byId.get(change.getKey());
+            if (existing != null) {
+                StationDto dto = new StationDto(existing);
+                dto.setAvailableSlots(change.getValue());
+                next.put(change.getKey(), dto);
+                changed = true;
+            }
+        }
+        if (!changed) {
+            return this;
+        }
+        StationViewSnapshot snapshot = new StationViewSnapshot(version, next, buildStartNanos, false);
+        snapshot.facets = facets;
+        return snapshot;
+    }
+
+    StationViewSnapshot without(long version, Long stationId, long buildStartNanos) {
+        TreeMap<Long, StationDto> next = new TreeMap<>(byId);
+        next.remove(stationId);
+        return new StationViewSnapshot(version, next, buildStartNanos, false);
+    }
+
+    public long getVersion() { return version; }
+    public StationDto get(Long stationId) { return byId.get(stationId); }
+    public List<StationDto> getAll() { return all; }
+    public List<StationDto> getApproved() { return approved; }
+    public int size() { return all.size(); }
+    public long getBuiltAtMillis() { return builtAtMillis; }
+    public long getBuildNanos() { return buildNanos; }
+    public boolean isFullRebuild() { return fullRebuild; }
+
+    // Built on first filtered read, so slot-count updates that nobody filters on stay cheap
+    public StationFacetIndex getFacets() {
+        StationFacetIndex current = facets;
+        if (current == null) {
+            current = new StationFacetIndex(all);
+            facets = current;
+        }
+        return current;
+    }
+}
@@ -5,7 +5,11 @@ import com.evcharger.api.dto.UpdateProfileDto;
 import com.evcharger.api.dto.UserDto;
 import com.evcharger.api.entity.User;
 import com.evcharger.api.repository.UserRepository;
+import com.evcharger.api.security.JwtUtils;
+import com.evcharger.api.security.UserDetailsServiceImpl;
+import com.evcharger.api.security.UserTokenVersions;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -20,12 +24,28 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private UserTokenVersions userTokenVersions;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
     public List<UserDto> getAllUsers() {
         return userRepository.findAll().stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
 
+    /** Up to {@code count} users with ids after {@code afterId} (null for the first page), in id order. */
+    public List<UserDto> getUsersAfter(Long afterId, int count) {
+        return userRepository.findByIdGreaterThanOrderByIdAsc(afterId != null ? afterId : 0L, PageRequest.of(0, count)).stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+    }
+
     public UserDto getUserProfile(String email) {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -45,10 +65,12 @@ public class UserService {
 
         // DO NOT SAVE - CAUSES ROLE OVERRIDE
         // User savedUser = userRepository.save(user);
+        userDetailsService.evict(email);
         return convertToDto(user);
     }
 
-    public void changePassword(String email, ChangePasswordDto changePasswordDto) {
+    /** Changes the password and revokes the user's existing tokens; returns a fresh token. */
+    public String changePassword(String email, ChangePasswordDto changePasswordDto) {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
@@ -58,6 +80,10 @@ public class UserService {
 
         // Only update password in database using native query to avoid role override
         userRepository.updatePasswordByEmail(email, passwordEncoder.encode(changePasswordDto.getNewPassword()));
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        userTokenVersions.evict(user.getId());
+        userDetailsService.evict(email);
+        return jwtUtils.generateTokenForUser(user);
     }
 
     private UserDto convertToDto(User user) {
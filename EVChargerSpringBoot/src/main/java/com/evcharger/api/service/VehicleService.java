@@ -1,18 +1,25 @@
 package com.evcharger.api.service;
 
 import com.evcharger.api.dto.UserVehicleRequest;
+import com.evcharger.api.dto.VehicleSpecDto;
+import com.evcharger.api.entity.Car;
 import com.evcharger.api.entity.User;
 import com.evcharger.api.entity.VehicleBrand;
 import com.evcharger.api.entity.VehicleModel;
+import com.evcharger.api.repository.CarRepository;
 import com.evcharger.api.repository.UserRepository;
 import com.evcharger.api.repository.VehicleBrandRepository;
 import com.evcharger.api.repository.VehicleModelRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,6 +33,15 @@ public class VehicleService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${vehicles.default-range-km:300}")
+    private int defaultRangeKm;
+
     public List<Map<String, Object>> getAllBrands() {
         return vehicleBrandRepository.findAll().stream()
                 .map(brand -> {
@@ -55,12 +71,63 @@ public class VehicleService {
                     Map<String, Object> modelMap = new HashMap<>();
                     modelMap.put("id", model.getId());
                     modelMap.put("name", model.getName());
-                    modelMap.put("range", 300); // Default range
+                    modelMap.put("range", model.getRangeKm() != null ? model.getRangeKm() : defaultRangeKm);
+                    modelMap.put("connectorTypes", parseConnectorTypes(model.getConnectorTypes()));
                     return modelMap;
                 })
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Range and connectors of the vehicle to plan for: an explicit model, else one of the
+     * user's saved cars (a specific one, or the first with a known range). A car's own range
+     * wins over its model's; connectors come from the model matching the car's model name.
+     */
+    public Optional<VehicleSpecDto> resolveVehicleSpec(Long userId, Long carId, Long modelId) {
+        if (modelId != null) {
+            VehicleModel model = vehicleModelRepository.findById(modelId)
+                    .orElseThrow(() -> new RuntimeException("Vehicle model not found"));
+            return Optional.of(toSpec(model));
+        }
+        if (carId != null) {
+            Car car = carRepository.findById(carId)
+                    .filter(c -> c.getUserId() != null && c.getUserId().equals(userId))
+                    .orElseThrow(() -> new RuntimeException("Car not found"));
+            return Optional.of(toSpec(car));
+        }
+        if (userId == null) {
+            return Optional.empty();
+        }
+        return carRepository.findByUserId(userId).stream()
+                .map(this::toSpec)
+                .filter(spec -> spec.getRangeKm() != null)
+                .findFirst();
+    }
+
+    private VehicleSpecDto toSpec(VehicleModel model) {
+        return new VehicleSpecDto(model.getRangeKm(), parseConnectorTypes(model.getConnectorTypes()));
+    }
+
+    private VehicleSpecDto toSpec(Car car) {
+        Optional<VehicleModel> model = car.getModel() != null
+                ? vehicleModelRepository.findFirstByNameIgnoreCase(car.getModel())
+                : Optional.empty();
+        Integer rangeKm = car.getVehicleRange() != null ? car.getVehicleRange() : model.map(VehicleModel::getRangeKm).orElse(null);
+        String[] connectorTypes = model.map(m -> parseConnectorTypes(m.getConnectorTypes())).orElse(null);
+        return new VehicleSpecDto(rangeKm, connectorTypes);
+    }
+
+    private String[] parseConnectorTypes(String json) {
+        if (json == null || json.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, String[].class);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
     public void saveUserVehicle(String email, UserVehicleRequest request) {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("User not found"));